@@ -28,6 +28,14 @@ public class FixedPatternStep implements PatternStep {
         this.caseSensitive = caseSensitive;
     }
 
+    String getValue() {
+        return value;
+    }
+
+    boolean isCaseSensitive() {
+        return caseSensitive;
+    }
+
     @Override
     public String toString() {
         return "{match: " + value + "}";
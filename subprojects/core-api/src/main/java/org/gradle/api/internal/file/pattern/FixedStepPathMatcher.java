@@ -29,6 +29,14 @@ public class FixedStepPathMatcher implements PathMatcher {
         maxSegments = next.getMaxSegments() == Integer.MAX_VALUE ? Integer.MAX_VALUE : next.getMaxSegments() + 1;
     }
 
+    PatternStep getStep() {
+        return step;
+    }
+
+    PathMatcher getNext() {
+        return next;
+    }
+
     @Override
     public String toString() {
         return "{fixed-step: " + step + ", next: " + next + "}";
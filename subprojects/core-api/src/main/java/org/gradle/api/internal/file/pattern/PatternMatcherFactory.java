@@ -19,6 +19,9 @@ import org.apache.commons.lang.StringUtils;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.specs.Spec;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class PatternMatcherFactory {
 
     private static final EndOfPathMatcher END_OF_PATH_MATCHER = new EndOfPathMatcher();
@@ -29,6 +32,17 @@ public class PatternMatcherFactory {
         return new PathMatcherBackedSpec(partialMatchDirs, pathMatcher);
     }
 
+    /**
+     * Returns a matcher that matches a path when any of the given patterns matches it.
+     */
+    public static Spec<RelativePath> getPatternsMatcher(boolean partialMatchDirs, boolean caseSensitive, Iterable<String> patterns) {
+        List<PathMatcher> pathMatchers = new ArrayList<PathMatcher>();
+        for (String pattern : patterns) {
+            pathMatchers.add(compile(caseSensitive, pattern));
+        }
+        return new PathMatcherBackedSpec(partialMatchDirs, UnionPathMatcher.of(pathMatchers));
+    }
+
     public static PathMatcher compile(boolean caseSensitive, String pattern) {
         if (pattern.length() == 0) {
             return END_OF_PATH_MATCHER;
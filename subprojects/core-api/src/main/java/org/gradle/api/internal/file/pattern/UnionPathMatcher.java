@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.pattern;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches a path against any of a set of patterns.
+ *
+ * Patterns that start with the same case sensitive fixed segments share a node, so each of these segments is matched once per path,
+ * rather than once per pattern. The remaining patterns are matched one at a time, starting at the node that contains them.
+ */
+public class UnionPathMatcher implements PathMatcher {
+    private final Map<String, UnionPathMatcher> fixedSteps = new HashMap<String, UnionPathMatcher>();
+    private final List<PathMatcher> otherMatchers = new ArrayList<PathMatcher>();
+    private boolean endOfPath;
+    private int minSegments = Integer.MAX_VALUE;
+    private int maxSegments;
+
+    private UnionPathMatcher() {
+    }
+
+    public static PathMatcher of(Iterable<? extends PathMatcher> matchers) {
+        UnionPathMatcher root = new UnionPathMatcher();
+        for (PathMatcher matcher : matchers) {
+            root.add(matcher);
+        }
+        return root;
+    }
+
+    private void add(PathMatcher matcher) {
+        minSegments = Math.min(minSegments, matcher.getMinSegments());
+        maxSegments = Math.max(maxSegments, matcher.getMaxSegments());
+        if (matcher instanceof EndOfPathMatcher) {
+            endOfPath = true;
+        } else if (matcher instanceof FixedStepPathMatcher && isCaseSensitiveFixedStep(((FixedStepPathMatcher) matcher).getStep())) {
+            FixedStepPathMatcher fixedStepMatcher = (FixedStepPathMatcher) matcher;
+            String value = ((FixedPatternStep) fixedStepMatcher.getStep()).getValue();
+            UnionPathMatcher next = fixedSteps.get(value);
+            if (next == null) {
+                next = new UnionPathMatcher();
+                fixedSteps.put(value, next);
+            }
+            next.add(fixedStepMatcher.getNext());
+        } else {
+            otherMatchers.add(matcher);
+        }
+    }
+
+    private static boolean isCaseSensitiveFixedStep(PatternStep step) {
+        return step instanceof FixedPatternStep && ((FixedPatternStep) step).isCaseSensitive();
+    }
+
+    @Override
+    public String toString() {
+        return "{union: fixed-steps: " + fixedSteps + ", others: " + otherMatchers + ", end-of-path: " + endOfPath + "}";
+    }
+
+    @Override
+    public int getMinSegments() {
+        return minSegments;
+    }
+
+    @Override
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    @Override
+    public boolean matches(String[] segments, int startIndex) {
+        if (startIndex == segments.length) {
+            if (endOfPath) {
+                return true;
+            }
+        } else {
+            UnionPathMatcher next = fixedSteps.get(segments[startIndex]);
+            if (next != null && next.matches(segments, startIndex + 1)) {
+                return true;
+            }
+        }
+        for (PathMatcher matcher : otherMatchers) {
+            if (matcher.matches(segments, startIndex)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isPrefix(String[] segments, int startIndex) {
+        if (startIndex == segments.length) {
+            // Empty path, might match when more elements added
+            if (!fixedSteps.isEmpty()) {
+                return true;
+            }
+        } else {
+            UnionPathMatcher next = fixedSteps.get(segments[startIndex]);
+            if (next != null && (startIndex + 1 == segments.length || next.isPrefix(segments, startIndex + 1))) {
+                return true;
+            }
+        }
+        for (PathMatcher matcher : otherMatchers) {
+            if (matcher.isPrefix(segments, startIndex)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.pattern
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class UnionPathMatcherTest extends Specification {
+    def patterns = ["a", "a/b/**", "a/b/c.txt", "a/*/d", "**/*.java", "b/c/", "A/e", "", "c/**/d/*.txt"]
+    def paths = ["", "a", "a/b", "a/b/c.txt", "a/x", "a/x/d", "a/x/d/e", "x/y/Z.java", "b", "b/c", "b/c/d", "A", "A/e", "a/e", "c", "c/x/d", "c/x/d/y.txt", "c/d/y.txt", "d"]
+
+    @Unroll
+    def "matches the same paths as the individual patterns (case sensitive: #caseSensitive)"() {
+        def matchers = patterns.collect { PatternMatcherFactory.compile(caseSensitive, it) }
+        def union = UnionPathMatcher.of(matchers)
+
+        expect:
+        paths.each { path ->
+            def segments = path.empty ? [] as String[] : path.split("/")
+            assert union.matches(segments, 0) == matchers.any { it.matches(segments, 0) }
+            assert union.isPrefix(segments, 0) == matchers.any { it.isPrefix(segments, 0) }
+        }
+
+        where:
+        caseSensitive << [true, false]
+    }
+
+    def "calculates min and max number of segments"() {
+        def matcher = UnionPathMatcher.of(["a/b", "a/b/c/d"].collect { PatternMatcherFactory.compile(true, it) })
+
+        expect:
+        matcher.minSegments == 2
+        matcher.maxSegments == 4
+    }
+
+    def "matches nothing when there are no patterns"() {
+        def matcher = UnionPathMatcher.of([])
+
+        expect:
+        !matcher.matches([] as String[], 0)
+        !matcher.matches(["a"] as String[], 0)
+        !matcher.isPrefix(["a"] as String[], 0)
+    }
+}
@@ -17,6 +17,7 @@ package org.gradle.api.internal.changedetection.state;
 
 import com.google.common.io.ByteStreams;
 import org.gradle.api.internal.tasks.compile.ApiClassExtractor;
+import org.gradle.internal.Factory;
 import org.gradle.internal.IoActions;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.hash.Hasher;
@@ -37,9 +38,29 @@ import java.util.Collections;
 public class AbiExtractingClasspathResourceHasher implements ResourceHasher {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbiExtractingClasspathResourceHasher.class);
 
+    private final ResourceSnapshotterCacheService cacheService;
+    private final HashCode classEntryConfigurationHash;
+
+    public AbiExtractingClasspathResourceHasher() {
+        this(null);
+    }
+
+    /**
+     * Creates a hasher which caches the ABI hash of each class in a zip file by the hash of its content,
+     * so only the changed classes of a changed jar need to be parsed again.
+     */
+    public AbiExtractingClasspathResourceHasher(@Nullable ResourceSnapshotterCacheService cacheService) {
+        this.cacheService = cacheService;
+        this.classEntryConfigurationHash = Hashing.signature(getClass().getName() + " : class entry");
+    }
+
     private HashCode hashClassBytes(InputStream inputStream) throws IOException {
+        return hashClassBytes(ByteStreams.toByteArray(inputStream));
+    }
+
+    @Nullable
+    private HashCode hashClassBytes(byte[] classBytes) {
         // Use the ABI as the hash
-        byte[] classBytes = ByteStreams.toByteArray(inputStream);
         ApiClassExtractor extractor = new ApiClassExtractor(Collections.<String>emptySet());
         ClassReader reader = new ClassReader(classBytes);
         if (extractor.shouldExtractApiClassFrom(reader)) {
@@ -75,7 +96,28 @@ public class AbiExtractingClasspathResourceHasher implements ResourceHasher {
         if (!isClassFile(zipEntry.getName())) {
             return null;
         }
-        return hashClassBytes(zipEntry.getInputStream());
+        final String name = zipEntry.getName();
+        final byte[] classBytes = ByteStreams.toByteArray(zipEntry.getInputStream());
+        final HashCode contentHash = Hashing.hashBytes(classBytes);
+        if (cacheService == null) {
+            return hashClassEntry(name, classBytes, contentHash);
+        }
+        return cacheService.hashContent(contentHash, classEntryConfigurationHash, new Factory<HashCode>() {
+            @Override
+            public HashCode create() {
+                return hashClassEntry(name, classBytes, contentHash);
+            }
+        });
+    }
+
+    @Nullable
+    private HashCode hashClassEntry(String name, byte[] classBytes, HashCode contentHash) {
+        try {
+            return hashClassBytes(classBytes);
+        } catch (Exception e) {
+            LOGGER.debug("Malformed class file '{}' found on compile classpath. Falling back to full content hash instead of ABI hashing.", name, e);
+            return contentHash;
+        }
     }
 
     private boolean isClassFile(String name) {
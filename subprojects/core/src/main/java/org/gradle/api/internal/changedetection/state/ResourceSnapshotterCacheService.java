@@ -16,9 +16,16 @@
 
 package org.gradle.api.internal.changedetection.state;
 
+import org.gradle.internal.Factory;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.snapshot.RegularFileSnapshot;
 
 public interface ResourceSnapshotterCacheService {
     HashCode hashFile(RegularFileSnapshot fileSnapshot, RegularFileHasher hasher, HashCode configurationHash);
+
+    /**
+     * Returns the normalized hash of some content identified by its content hash, using the given hasher when the result is not cached yet.
+     * Since the cache key does not depend on the location of the content, results can be shared between different files containing the same content.
+     */
+    HashCode hashContent(HashCode contentHash, HashCode configurationHash, Factory<HashCode> hasher);
 }
@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.changedetection.state;
 
+import org.gradle.internal.Factory;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.snapshot.RegularFileSnapshot;
 import org.gradle.internal.snapshot.WellKnownFileLocations;
@@ -43,4 +44,9 @@ public class SplitResourceSnapshotterCacheService implements ResourceSnapshotter
             return localCache.hashFile(fileSnapshot, hasher, configurationHash);
         }
     }
+
+    @Override
+    public HashCode hashContent(HashCode contentHash, HashCode configurationHash, Factory<HashCode> hasher) {
+        return globalCache.hashContent(contentHash, configurationHash, hasher);
+    }
 }
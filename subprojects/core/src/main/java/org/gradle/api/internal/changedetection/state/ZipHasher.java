@@ -17,6 +17,7 @@
 package org.gradle.api.internal.changedetection.state;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Uninterruptibles;
 import org.apache.commons.compress.utils.Lists;
 import org.gradle.api.file.internal.FilePathUtil;
 import org.gradle.internal.Factory;
@@ -36,13 +37,20 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ZipHasher implements RegularFileHasher, ConfigurableNormalizer {
 
     private static final Set<String> KNOWN_ZIP_EXTENSIONS = ImmutableSet.of(".zip", ".jar", ".war", ".rar", ".ear", ".apk", ".aar");
     private static final Logger LOGGER = LoggerFactory.getLogger(ZipHasher.class);
+    private static final int ENTRIES_PER_BATCH = 64;
 
     public static boolean isZipFile(final String name) {
         for (String extension : KNOWN_ZIP_EXTENSIONS) {
@@ -55,10 +63,16 @@ public class ZipHasher implements RegularFileHasher, ConfigurableNormalizer {
 
     private final ResourceHasher resourceHasher;
     private final ResourceFilter resourceFilter;
+    private final ZipHashingExecutor hashingExecutor;
 
     public ZipHasher(ResourceHasher resourceHasher, ResourceFilter resourceFilter) {
+        this(resourceHasher, resourceFilter, ZipHashingExecutor.sequential());
+    }
+
+    public ZipHasher(ResourceHasher resourceHasher, ResourceFilter resourceFilter, ZipHashingExecutor hashingExecutor) {
         this.resourceHasher = resourceHasher;
         this.resourceFilter = resourceFilter;
+        this.hashingExecutor = hashingExecutor;
     }
 
     @Nullable
@@ -89,12 +103,17 @@ public class ZipHasher implements RegularFileHasher, ConfigurableNormalizer {
         }
     }
 
-    private List<FileSystemLocationFingerprint> fingerprintZipEntries(String zipFile) throws IOException {
+    private List<FileSystemLocationFingerprint> fingerprintZipEntries(String zipFile) throws Exception {
+        File file = new File(zipFile);
         ZipInput input = null;
         try {
-            input = new FileZipInput(new File(zipFile));
+            input = new FileZipInput(file);
             List<FileSystemLocationFingerprint> fingerprints = Lists.newArrayList();
-            fingerprintZipEntries("", fingerprints, input);
+            if (hashingExecutor.shouldHashInParallel(file.length())) {
+                fingerprintZipEntriesInParallel(fingerprints, input);
+            } else {
+                fingerprintZipEntries("", fingerprints, input);
+            }
             return fingerprints;
         } finally {
             IoActions.closeQuietly(input);
@@ -112,11 +131,93 @@ public class ZipHasher implements RegularFileHasher, ConfigurableNormalizer {
             if (isZipFile(zipEntry.getName())) {
                 fingerprintZipEntries(fullName, fingerprints, new StreamZipInput(zipEntry.getInputStream()));
             } else {
-                HashCode hash = resourceHasher.hash(zipEntry);
-                if (hash != null) {
-                    fingerprints.add(new DefaultFileSystemLocationFingerprint(fullName, FileType.RegularFile, hash));
+                fingerprintZipEntry(fullName, fingerprints, zipEntry);
+            }
+        }
+    }
+
+    /**
+     * Hashes the entries of a top-level zip file in batches on the hashing executor.
+     * Entries of a {@link FileZipInput} can be opened independently of each other, so only nested zips, which need to be streamed, are hashed on the calling thread.
+     * The order of the fingerprints does not matter, since they are sorted before being hashed.
+     * When hashing fails, all submitted batches are stopped and waited for, since the zip file is closed afterwards.
+     */
+    private void fingerprintZipEntriesInParallel(List<FileSystemLocationFingerprint> fingerprints, ZipInput input) throws Exception {
+        fingerprints.add(newZipMarker(""));
+        List<Future<List<FileSystemLocationFingerprint>>> batchResults = Lists.newArrayList();
+        AtomicBoolean aborted = new AtomicBoolean();
+        try {
+            List<ZipEntry> batch = Lists.newArrayList();
+            for (ZipEntry zipEntry : input) {
+                ZipEntryRelativePath relativePath = new ZipEntryRelativePath(zipEntry);
+                if (zipEntry.isDirectory() || resourceFilter.shouldBeIgnored(relativePath)) {
+                    continue;
+                }
+                if (isZipFile(zipEntry.getName())) {
+                    fingerprintZipEntries(zipEntry.getName(), fingerprints, new StreamZipInput(zipEntry.getInputStream()));
+                } else {
+                    batch.add(zipEntry);
+                    if (batch.size() == ENTRIES_PER_BATCH) {
+                        batchResults.add(hashingExecutor.getExecutor().submit(new HashBatch(batch, aborted)));
+                        batch = Lists.newArrayList();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                batchResults.add(hashingExecutor.getExecutor().submit(new HashBatch(batch, aborted)));
+            }
+            for (Future<List<FileSystemLocationFingerprint>> batchResult : batchResults) {
+                fingerprints.addAll(batchResult.get());
+            }
+        } catch (ExecutionException e) {
+            abort(aborted, batchResults);
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        } catch (Exception e) {
+            abort(aborted, batchResults);
+            throw e;
+        }
+    }
+
+    private static void abort(AtomicBoolean aborted, List<? extends Future<?>> batchResults) {
+        aborted.set(true);
+        for (Future<?> batchResult : batchResults) {
+            try {
+                Uninterruptibles.getUninterruptibly(batchResult);
+            } catch (ExecutionException ignored) {
+                // The batch has finished, which is all we are waiting for
+            } catch (CancellationException ignored) {
+                // The batch never ran
+            }
+        }
+    }
+
+    private void fingerprintZipEntry(String fullName, List<FileSystemLocationFingerprint> fingerprints, ZipEntry zipEntry) throws IOException {
+        HashCode hash = resourceHasher.hash(zipEntry);
+        if (hash != null) {
+            fingerprints.add(new DefaultFileSystemLocationFingerprint(fullName, FileType.RegularFile, hash));
+        }
+    }
+
+    private class HashBatch implements Callable<List<FileSystemLocationFingerprint>> {
+        private final List<ZipEntry> entries;
+        private final AtomicBoolean aborted;
+
+        private HashBatch(List<ZipEntry> entries, AtomicBoolean aborted) {
+            this.entries = entries;
+            this.aborted = aborted;
+        }
+
+        @Override
+        public List<FileSystemLocationFingerprint> call() throws IOException {
+            List<FileSystemLocationFingerprint> fingerprints = new ArrayList<FileSystemLocationFingerprint>(entries.size());
+            for (ZipEntry zipEntry : entries) {
+                if (aborted.get()) {
+                    break;
                 }
+                fingerprintZipEntry(zipEntry.getName(), fingerprints, zipEntry);
             }
+            return fingerprints;
         }
     }
 
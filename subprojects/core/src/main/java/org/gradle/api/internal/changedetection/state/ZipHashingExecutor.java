@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Executes the hashing of entries of large zip files on a shared pool of threads.
+ *
+ * Zip files smaller than the configured minimum size are hashed on the calling thread.
+ */
+public class ZipHashingExecutor implements Stoppable {
+
+    public static final String MINIMUM_ZIP_SIZE_PROPERTY = "org.gradle.internal.zip.parallel.hashing.minSize";
+    public static final long DEFAULT_MINIMUM_ZIP_SIZE = 16 * 1024 * 1024;
+
+    private static final ZipHashingExecutor SEQUENTIAL = new ZipHashingExecutor(MoreExecutors.newDirectExecutorService(), null, Long.MAX_VALUE);
+
+    private final ExecutorService executor;
+    private final ManagedExecutor managedExecutor;
+    private final long minimumZipSize;
+
+    public ZipHashingExecutor(ManagedExecutor executor) {
+        this(executor, Long.getLong(MINIMUM_ZIP_SIZE_PROPERTY, DEFAULT_MINIMUM_ZIP_SIZE));
+    }
+
+    public ZipHashingExecutor(ManagedExecutor executor, long minimumZipSize) {
+        this(executor, executor, minimumZipSize);
+    }
+
+    private ZipHashingExecutor(ExecutorService executor, @Nullable ManagedExecutor managedExecutor, long minimumZipSize) {
+        this.executor = executor;
+        this.managedExecutor = managedExecutor;
+        this.minimumZipSize = minimumZipSize;
+    }
+
+    /**
+     * Hashes all zip entries on the calling thread.
+     */
+    public static ZipHashingExecutor sequential() {
+        return SEQUENTIAL;
+    }
+
+    public boolean shouldHashInParallel(long zipFileSize) {
+        return zipFileSize >= minimumZipSize;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void stop() {
+        if (managedExecutor != null) {
+            managedExecutor.stop();
+        }
+    }
+}
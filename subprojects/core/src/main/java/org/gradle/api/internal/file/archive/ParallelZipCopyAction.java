@@ -0,0 +1,341 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.compress.archivers.zip.UnixStat;
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.Zip64RequiredException;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
+import org.gradle.api.UncheckedIOException;
+import org.gradle.api.file.FileCopyDetails;
+import org.gradle.api.internal.DocumentationRegistry;
+import org.gradle.api.internal.file.CopyActionProcessingStreamAction;
+import org.gradle.api.internal.file.copy.CopyAction;
+import org.gradle.api.internal.file.copy.CopyActionProcessingStream;
+import org.gradle.api.internal.file.copy.FileCopyDetailsInternal;
+import org.gradle.api.tasks.WorkResult;
+import org.gradle.api.tasks.WorkResults;
+import org.gradle.api.tasks.bundling.Zip;
+import org.gradle.internal.IoActions;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Writes a ZIP archive, compressing the content of the entries on the build's worker threads.
+ *
+ * Unfiltered regular files are compressed in parallel into memory, in batches of bounded size, and then written to the archive as raw entries in the order they were visited.
+ * All other entries, as well as large files, are written directly to the archive while visiting the files, after writing the pending batch.
+ * The archive therefore contains the same entries in the same order as when written sequentially by {@link ZipCopyAction}.
+ *
+ * Files that are already compressed, such as nested archives and images, are stored rather than deflated, unlike with {@link ZipCopyAction}.
+ * Deflating them again costs CPU time and barely reduces their size.
+ *
+ * As with {@link ZipCopyAction}, entry names are encoded with the platform's default charset unless a charset is given.
+ * The language encoding flag is only set when that charset is UTF-8, whereas {@link ZipCopyAction} always sets it when no charset is given.
+ */
+public class ParallelZipCopyAction implements CopyAction {
+    public static final String PARALLEL_ZIP_PROPERTY = "org.gradle.internal.zip.parallel";
+
+    private static final int ENTRIES_PER_BATCH = 100;
+    private static final long MAX_BUFFERED_ENTRY_SIZE = 8 * 1024 * 1024;
+    private static final long MAX_BUFFERED_SIZE = 64 * 1024 * 1024;
+    private static final Set<String> COMPRESSED_FILE_EXTENSIONS = ImmutableSet.of(
+        "zip", "jar", "war", "ear", "aar", "gz", "tgz", "bz2", "xz", "7z", "png", "jpg", "jpeg", "gif"
+    );
+
+    private final File zipFile;
+    private final boolean deflate;
+    private final boolean allowZip64;
+    private final DocumentationRegistry documentationRegistry;
+    private final String encoding;
+    private final boolean preserveFileTimestamps;
+    private final BuildOperationExecutor buildOperationExecutor;
+
+    public ParallelZipCopyAction(File zipFile, boolean deflate, boolean allowZip64, DocumentationRegistry documentationRegistry, String encoding, boolean preserveFileTimestamps, BuildOperationExecutor buildOperationExecutor) {
+        this.zipFile = zipFile;
+        this.deflate = deflate;
+        this.allowZip64 = allowZip64;
+        this.documentationRegistry = documentationRegistry;
+        this.encoding = encoding;
+        this.preserveFileTimestamps = preserveFileTimestamps;
+        this.buildOperationExecutor = buildOperationExecutor;
+    }
+
+    @Override
+    public WorkResult execute(final CopyActionProcessingStream stream) {
+        final ZipArchiveOutputStream zipOutStr;
+
+        try {
+            zipOutStr = new ZipArchiveOutputStream(zipFile);
+            zipOutStr.setUseZip64(allowZip64 ? Zip64Mode.AsNeeded : Zip64Mode.Never);
+            zipOutStr.setMethod(deflate ? ZipEntry.DEFLATED : ZipEntry.STORED);
+            zipOutStr.setEncoding(encoding != null ? encoding : Charset.defaultCharset().name());
+        } catch (Exception e) {
+            throw new GradleException(String.format("Could not create ZIP '%s'.", zipFile), e);
+        }
+
+        try {
+            IoActions.withResource(zipOutStr, new Action<ZipArchiveOutputStream>() {
+                @Override
+                public void execute(ZipArchiveOutputStream outputStream) {
+                    StreamAction action = new StreamAction(outputStream);
+                    stream.process(action);
+                    action.writePendingEntries();
+                }
+            });
+        } catch (UncheckedIOException e) {
+            if (e.getCause() instanceof Zip64RequiredException) {
+                throw new org.gradle.api.tasks.bundling.internal.Zip64RequiredException(
+                        String.format("%s\n\nTo build this archive, please enable the zip64 extension.\nSee: %s", e.getCause().getMessage(), documentationRegistry.getDslRefForProperty(Zip.class, "zip64"))
+                );
+            }
+            throw e;
+        }
+
+        return WorkResults.didWork(true);
+    }
+
+    private class StreamAction implements CopyActionProcessingStreamAction {
+        private final ZipArchiveOutputStream zipOutStr;
+        private final List<PendingEntry> pendingEntries = new ArrayList<PendingEntry>();
+        private long pendingSize;
+
+        public StreamAction(ZipArchiveOutputStream zipOutStr) {
+            this.zipOutStr = zipOutStr;
+        }
+
+        @Override
+        public void processFile(FileCopyDetailsInternal details) {
+            if (details.isDirectory()) {
+                pendingEntries.add(new PendingEntry(details, true));
+            } else if (details.isUnfilteredRegularFile() && details.getSize() <= MAX_BUFFERED_ENTRY_SIZE) {
+                pendingEntries.add(new PendingEntry(details, false));
+                pendingSize += details.getSize();
+                if (pendingSize >= MAX_BUFFERED_SIZE) {
+                    writePendingEntries();
+                }
+            } else {
+                writePendingEntries();
+                visitFile(details);
+            }
+        }
+
+        void writePendingEntries() {
+            if (pendingEntries.isEmpty()) {
+                return;
+            }
+            compress(pendingEntries);
+            for (PendingEntry entry : pendingEntries) {
+                entry.writeTo(zipOutStr);
+            }
+            pendingEntries.clear();
+            pendingSize = 0;
+        }
+
+        private void visitFile(FileCopyDetails fileDetails) {
+            try {
+                ZipArchiveEntry archiveEntry = createFileEntry(fileDetails);
+                archiveEntry.setMethod(deflate && !isCompressed(fileDetails) ? ZipEntry.DEFLATED : ZipEntry.STORED);
+                zipOutStr.putArchiveEntry(archiveEntry);
+                fileDetails.copyTo(zipOutStr);
+                zipOutStr.closeArchiveEntry();
+            } catch (Zip64RequiredException e) {
+                throw new UncheckedIOException(e);
+            } catch (Exception e) {
+                throw new GradleException(String.format("Could not add %s to ZIP '%s'.", fileDetails, zipFile), e);
+            }
+        }
+    }
+
+    private void compress(List<PendingEntry> entries) {
+        final List<PendingEntry> files = new ArrayList<PendingEntry>(entries.size());
+        for (PendingEntry entry : entries) {
+            if (!entry.directory) {
+                files.add(entry);
+            }
+        }
+        if (files.size() <= ENTRIES_PER_BATCH) {
+            new CompressEntries(files).compress();
+            return;
+        }
+        buildOperationExecutor.runAll(new Action<BuildOperationQueue<CompressEntries>>() {
+            @Override
+            public void execute(BuildOperationQueue<CompressEntries> queue) {
+                for (int start = 0; start < files.size(); start += ENTRIES_PER_BATCH) {
+                    queue.add(new CompressEntries(files.subList(start, Math.min(start + ENTRIES_PER_BATCH, files.size()))));
+                }
+            }
+        });
+    }
+
+    private ZipArchiveEntry createFileEntry(FileCopyDetails fileDetails) {
+        ZipArchiveEntry archiveEntry = new ZipArchiveEntry(fileDetails.getRelativePath().getPathString());
+        archiveEntry.setTime(getArchiveTimeFor(fileDetails));
+        archiveEntry.setUnixMode(UnixStat.FILE_FLAG | fileDetails.getMode());
+        return archiveEntry;
+    }
+
+    private ZipArchiveEntry createDirectoryEntry(FileCopyDetails dirDetails) {
+        // Trailing slash in name indicates that entry is a directory
+        ZipArchiveEntry archiveEntry = new ZipArchiveEntry(dirDetails.getRelativePath().getPathString() + '/');
+        archiveEntry.setTime(getArchiveTimeFor(dirDetails));
+        archiveEntry.setUnixMode(UnixStat.DIR_FLAG | dirDetails.getMode());
+        return archiveEntry;
+    }
+
+    private long getArchiveTimeFor(FileCopyDetails details) {
+        return preserveFileTimestamps ? details.getLastModified() : ZipCopyAction.CONSTANT_TIME_FOR_ZIP_ENTRIES;
+    }
+
+    private static boolean isCompressed(FileCopyDetails fileDetails) {
+        String name = fileDetails.getName();
+        int extensionStart = name.lastIndexOf('.');
+        return extensionStart >= 0 && COMPRESSED_FILE_EXTENSIONS.contains(name.substring(extensionStart + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * An entry of the archive, along with the compressed content of the file it was created from, unless it is a directory.
+     */
+    private class PendingEntry {
+        private final FileCopyDetails details;
+        private final boolean directory;
+        private ZipArchiveEntry archiveEntry;
+        private byte[] content;
+
+        PendingEntry(FileCopyDetails details, boolean directory) {
+            this.details = details;
+            this.directory = directory;
+        }
+
+        void compress() {
+            boolean deflateContent = deflate && !isCompressed(details);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) details.getSize());
+            Deflater deflater = deflateContent ? new Deflater(Deflater.DEFAULT_COMPRESSION, true) : null;
+            try {
+                ContentStream contentStream = new ContentStream(deflateContent ? new DeflaterOutputStream(buffer, deflater) : buffer);
+                details.copyTo(contentStream);
+                contentStream.close();
+                archiveEntry = createFileEntry(details);
+                archiveEntry.setMethod(deflateContent ? ZipEntry.DEFLATED : ZipEntry.STORED);
+                archiveEntry.setSize(contentStream.size);
+                archiveEntry.setCrc(contentStream.crc.getValue());
+                content = buffer.toByteArray();
+                archiveEntry.setCompressedSize(content.length);
+            } catch (Exception e) {
+                throw new GradleException(String.format("Could not add %s to ZIP '%s'.", details, zipFile), e);
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+        }
+
+        void writeTo(ZipArchiveOutputStream zipOutStr) {
+            try {
+                if (directory) {
+                    zipOutStr.putArchiveEntry(createDirectoryEntry(details));
+                    zipOutStr.closeArchiveEntry();
+                } else {
+                    zipOutStr.addRawArchiveEntry(archiveEntry, new ByteArrayInputStream(content));
+                    content = null;
+                }
+            } catch (Zip64RequiredException e) {
+                throw new UncheckedIOException(e);
+            } catch (Exception e) {
+                throw new GradleException(String.format("Could not add %s to ZIP '%s'.", details, zipFile), e);
+            }
+        }
+    }
+
+    /**
+     * Computes the size and the CRC of the uncompressed content of a file, while passing it on.
+     */
+    private static class ContentStream extends OutputStream {
+        private final OutputStream delegate;
+        private final CRC32 crc = new CRC32();
+        private long size;
+
+        ContentStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            crc.update(b);
+            size++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            crc.update(b, off, len);
+            size += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static class CompressEntries implements RunnableBuildOperation {
+        private final List<PendingEntry> entries;
+
+        CompressEntries(List<PendingEntry> entries) {
+            this.entries = entries;
+        }
+
+        void compress() {
+            for (PendingEntry entry : entries) {
+                entry.compress();
+            }
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            compress();
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Compress " + entries.size() + " ZIP entries");
+        }
+    }
+}
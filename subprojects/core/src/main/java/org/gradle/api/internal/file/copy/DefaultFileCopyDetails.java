@@ -23,6 +23,7 @@ import org.gradle.api.file.DuplicatesStrategy;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.AbstractFileTreeElement;
+import org.gradle.api.internal.file.DefaultFileTreeElement;
 import org.gradle.internal.nativeintegration.filesystem.Chmod;
 
 import javax.annotation.Nullable;
@@ -55,6 +56,11 @@ public class DefaultFileCopyDetails extends AbstractFileTreeElement implements F
         return specResolver.getIncludeEmptyDirs();
     }
 
+    @Override
+    public boolean isUnfilteredRegularFile() {
+        return !filterChain.hasFilters() && !fileDetails.isDirectory() && fileDetails instanceof DefaultFileTreeElement;
+    }
+
     @Override
     public String getDisplayName() {
         return fileDetails.toString();
@@ -15,38 +15,151 @@
  */
 package org.gradle.api.internal.file.copy;
 
+import org.gradle.api.Action;
 import org.gradle.api.internal.file.CopyActionProcessingStreamAction;
 import org.gradle.api.tasks.WorkResult;
 import org.gradle.api.tasks.WorkResults;
 import org.gradle.internal.file.PathToFileResolver;
+import org.gradle.internal.hash.FileHasher;
+import org.gradle.internal.nativeintegration.filesystem.Chmod;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Copies files to the file system.
+ *
+ * When copying in parallel is enabled, regular files copied without changes to their content are copied after all files have been visited, in batches on the build's worker threads.
+ * All other files, as well as directories, are copied while visiting the files.
+ *
+ * When skipping unchanged files is enabled, regular files copied without changes to their content are not written when the destination already has the same content.
+ * The content is compared using file hashes, which are usually cached from fingerprinting the inputs and the outputs of the task, so the files are not read again.
+ */
 public class FileCopyAction implements CopyAction {
+    public static final String PARALLEL_COPY_PROPERTY = "org.gradle.internal.copy.parallel";
+    public static final String SKIP_UNCHANGED_FILES_PROPERTY = "org.gradle.internal.copy.skip.unchanged";
+    private static final int FILES_PER_BATCH = 100;
 
     private final PathToFileResolver fileResolver;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final FileHasher fileHasher;
+    private final Chmod chmod;
 
     public FileCopyAction(PathToFileResolver fileResolver) {
+        this(fileResolver, null, null, null);
+    }
+
+    public FileCopyAction(PathToFileResolver fileResolver, @Nullable BuildOperationExecutor buildOperationExecutor, @Nullable FileHasher fileHasher, @Nullable Chmod chmod) {
         this.fileResolver = fileResolver;
+        this.buildOperationExecutor = buildOperationExecutor != null && Boolean.getBoolean(PARALLEL_COPY_PROPERTY) ? buildOperationExecutor : null;
+        boolean skipUnchangedFiles = fileHasher != null && chmod != null && Boolean.getBoolean(SKIP_UNCHANGED_FILES_PROPERTY);
+        this.fileHasher = skipUnchangedFiles ? fileHasher : null;
+        this.chmod = skipUnchangedFiles ? chmod : null;
     }
 
     @Override
     public WorkResult execute(CopyActionProcessingStream stream) {
         FileCopyDetailsInternalAction action = new FileCopyDetailsInternalAction();
         stream.process(action);
-        return WorkResults.didWork(action.didWork);
+        action.copyDeferredFiles();
+        return WorkResults.didWork(action.didWork.get());
+    }
+
+    private boolean copy(FileCopyDetailsInternal details, File target) {
+        if (fileHasher != null && details.isUnfilteredRegularFile() && hasSameContent(details, target)) {
+            chmod.chmod(target, details.getMode());
+            return false;
+        }
+        return details.copyTo(target);
+    }
+
+    private boolean hasSameContent(FileCopyDetailsInternal details, File target) {
+        return target.isFile()
+            && target.length() == details.getSize()
+            && fileHasher.hash(target).equals(fileHasher.hash(details));
     }
 
     private class FileCopyDetailsInternalAction implements CopyActionProcessingStreamAction {
-        private boolean didWork;
+        // Keyed by target file, so that a file copied later to the same target replaces the earlier one, as it would when copying sequentially
+        private final Map<File, FileCopyDetailsInternal> deferredFiles = new LinkedHashMap<File, FileCopyDetailsInternal>();
+        private final AtomicBoolean didWork = new AtomicBoolean();
 
         @Override
         public void processFile(FileCopyDetailsInternal details) {
             File target = fileResolver.resolve(details.getRelativePath().getPathString());
-            boolean copied = details.copyTo(target);
-            if (copied) {
-                didWork = true;
+            if (buildOperationExecutor != null && details.isUnfilteredRegularFile()) {
+                deferredFiles.remove(target);
+                deferredFiles.put(target, details);
+                return;
+            }
+            deferredFiles.remove(target);
+            if (copy(details, target)) {
+                didWork.set(true);
+            }
+        }
+
+        void copyDeferredFiles() {
+            if (deferredFiles.isEmpty()) {
+                return;
             }
+            if (deferredFiles.size() <= FILES_PER_BATCH) {
+                new CopyFiles(new ArrayList<Map.Entry<File, FileCopyDetailsInternal>>(deferredFiles.entrySet()), didWork).copy();
+                return;
+            }
+            buildOperationExecutor.runAll(new Action<BuildOperationQueue<CopyFiles>>() {
+                @Override
+                public void execute(BuildOperationQueue<CopyFiles> queue) {
+                    List<Map.Entry<File, FileCopyDetailsInternal>> batch = new ArrayList<Map.Entry<File, FileCopyDetailsInternal>>(FILES_PER_BATCH);
+                    for (Map.Entry<File, FileCopyDetailsInternal> entry : deferredFiles.entrySet()) {
+                        batch.add(entry);
+                        if (batch.size() == FILES_PER_BATCH) {
+                            queue.add(new CopyFiles(batch, didWork));
+                            batch = new ArrayList<Map.Entry<File, FileCopyDetailsInternal>>(FILES_PER_BATCH);
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        queue.add(new CopyFiles(batch, didWork));
+                    }
+                }
+            });
+        }
+    }
+
+    private class CopyFiles implements RunnableBuildOperation {
+        private final List<Map.Entry<File, FileCopyDetailsInternal>> files;
+        private final AtomicBoolean didWork;
+
+        CopyFiles(List<Map.Entry<File, FileCopyDetailsInternal>> files, AtomicBoolean didWork) {
+            this.files = files;
+            this.didWork = didWork;
+        }
+
+        void copy() {
+            for (Map.Entry<File, FileCopyDetailsInternal> entry : files) {
+                if (FileCopyAction.this.copy(entry.getValue(), entry.getKey())) {
+                    didWork.set(true);
+                }
+            }
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            copy();
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Copy " + files.size() + " files");
         }
     }
 }
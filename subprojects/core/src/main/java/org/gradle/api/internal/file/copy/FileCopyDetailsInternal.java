@@ -22,4 +22,10 @@ public interface FileCopyDetailsInternal extends FileCopyDetails {
 
     boolean isIncludeEmptyDirs();
 
+    /**
+     * Returns true when this is a regular file that is copied from the file system without changes to its content.
+     * Such files can still be copied after the file tree has been visited.
+     */
+    boolean isUnfilteredRegularFile();
+
 }
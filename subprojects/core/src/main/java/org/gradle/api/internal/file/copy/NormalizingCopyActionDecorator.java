@@ -122,6 +122,11 @@ public class NormalizingCopyActionDecorator implements CopyAction {
             return includeEmptyDirs;
         }
 
+        @Override
+        public boolean isUnfilteredRegularFile() {
+            return false;
+        }
+
         @Override
         public String getDisplayName() {
             return path.toString();
@@ -70,6 +70,7 @@ public class BuildOperationCrossProjectConfigurator implements CrossProjectConfi
     }
 
     private void runProjectConfigureAction(final Project project, final Action<? super Project> configureAction) {
+        ParallelProjectConfiguration.assertCanConfigure(project);
         ((ProjectInternal)project).getMutationState().withMutableState(new Runnable() {
             @Override
             public void run() {
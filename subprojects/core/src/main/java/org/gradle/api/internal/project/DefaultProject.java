@@ -241,7 +241,7 @@ public class DefaultProject extends AbstractPluginAware implements ProjectIntern
         services = serviceRegistryFactory.createFor(this);
         taskContainer = services.get(TaskContainerInternal.class);
 
-        extensibleDynamicObject = new ExtensibleDynamicObject(this, Project.class, services.get(InstantiatorFactory.class).injectAndDecorateLenient(services));
+        extensibleDynamicObject = new ExtensibleDynamicObject(this, Project.class, services.get(InstantiatorFactory.class).injectAndDecorateLenient(services), new ParallelConfigurationExtraPropertiesExtension(this));
         if (parent != null) {
             extensibleDynamicObject.setParent(parent.getInheritedScope());
         }
@@ -765,12 +765,19 @@ public class DefaultProject extends AbstractPluginAware implements ProjectIntern
         return evaluationDependsOn(projectToEvaluate);
     }
 
-    private Project evaluationDependsOn(DefaultProject projectToEvaluate) {
+    private Project evaluationDependsOn(final DefaultProject projectToEvaluate) {
         if (projectToEvaluate.getState().isConfiguring()) {
             throw new CircularReferenceException(String.format("Circular referencing during evaluation for %s.",
                 projectToEvaluate));
         }
-        return projectToEvaluate.evaluate();
+        // When configured in parallel, the project to evaluate is configured by this thread on behalf of itself
+        ParallelProjectConfiguration.configureDependency(projectToEvaluate, new Runnable() {
+            @Override
+            public void run() {
+                projectToEvaluate.evaluate();
+            }
+        });
+        return projectToEvaluate;
     }
 
     @Override
@@ -1042,6 +1049,7 @@ public class DefaultProject extends AbstractPluginAware implements ProjectIntern
 
     @Override
     public void setProperty(String name, Object value) {
+        ParallelProjectConfiguration.assertCanConfigure(this);
         extensibleDynamicObject.setProperty(name, value);
     }
 
@@ -127,8 +127,17 @@ public class DefaultProjectStateRegistry implements ProjectStateRegistry {
 
     @Override
     public <T> T withLenientState(Factory<T> factory) {
+        return withMutationState(true, factory);
+    }
+
+    @Override
+    public void withStrictState(Runnable runnable) {
+        withMutationState(false, Factories.toFactory(runnable));
+    }
+
+    private static <T> T withMutationState(boolean lenient, Factory<T> factory) {
         Boolean originalState = LENIENT_MUTATION_STATE.get();
-        LENIENT_MUTATION_STATE.set(true);
+        LENIENT_MUTATION_STATE.set(lenient);
         try {
             return factory.create();
         } finally {
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.project;
+
+import org.gradle.internal.extensibility.DefaultExtraPropertiesExtension;
+
+import javax.annotation.Nullable;
+
+/**
+ * The extra properties of a project, which may only be set by the project itself or its parent projects while projects are configured in parallel.
+ */
+class ParallelConfigurationExtraPropertiesExtension extends DefaultExtraPropertiesExtension {
+    private final ProjectInternal project;
+
+    ParallelConfigurationExtraPropertiesExtension(ProjectInternal project) {
+        this.project = project;
+    }
+
+    @Override
+    public void set(String name, @Nullable Object value) {
+        ParallelProjectConfiguration.assertCanConfigure(project);
+        super.set(name, value);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.project;
+
+import org.gradle.api.InvalidUserCodeException;
+import org.gradle.api.Project;
+
+/**
+ * Tracks the project configured by the current thread when projects are configured in parallel.
+ *
+ * While projects are configured in parallel, a project may only configure itself and its subprojects,
+ * as all other projects may be configured concurrently by other threads.
+ */
+public class ParallelProjectConfiguration {
+    private static final ThreadLocal<ProjectInternal> CURRENT_PROJECT = new ThreadLocal<ProjectInternal>();
+
+    private ParallelProjectConfiguration() {
+    }
+
+    /**
+     * Runs the given action, which configures the given project in parallel with other projects.
+     */
+    public static void configure(ProjectInternal project, Runnable action) {
+        ProjectInternal previous = CURRENT_PROJECT.get();
+        CURRENT_PROJECT.set(project);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                CURRENT_PROJECT.remove();
+            } else {
+                CURRENT_PROJECT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs the given action, which configures a project that the project configured by the current thread depends on.
+     */
+    public static void configureDependency(ProjectInternal project, Runnable action) {
+        if (CURRENT_PROJECT.get() == null) {
+            action.run();
+        } else {
+            configure(project, action);
+        }
+    }
+
+    /**
+     * Fails when the given project cannot be safely configured from the current thread.
+     */
+    public static void assertCanConfigure(Project target) {
+        ProjectInternal current = CURRENT_PROJECT.get();
+        if (current == null) {
+            return;
+        }
+        for (Project project = target; project != null; project = project.getParent()) {
+            if (project == current) {
+                return;
+            }
+        }
+        throw new InvalidUserCodeException(String.format("Cannot configure %s from %s while projects are configured in parallel. A project can only configure itself and its subprojects.", target, current));
+    }
+}
@@ -72,6 +72,12 @@ public interface ProjectStateRegistry {
      */
     <T> T withLenientState(Factory<T> factory);
 
+    /**
+     * Allows a section of code to be run with state locking enabled, even when called from a section of code
+     * that runs with lenient state.
+     */
+    void withStrictState(Runnable runnable);
+
     /**
      * Returns a {@link SafeExclusiveLock}.
      */
@@ -258,6 +258,8 @@ public class DefaultTypeMetadataStore implements TypeMetadataStore {
         public DefaultPropertyMetadata(Class<? extends Annotation> propertyType, PropertyAnnotationMetadata annotationMetadata) {
             this.propertyType = propertyType;
             this.annotationMetadata = annotationMetadata;
+            // Make the getter accessible once here, rather than each time the property is visited
+            annotationMetadata.getMethod().setAccessible(true);
         }
 
         @Override
@@ -16,8 +16,6 @@
 
 package org.gradle.api.internal.tasks.properties.bean;
 
-import com.google.common.base.Supplier;
-import com.google.common.base.Suppliers;
 import org.gradle.api.Buildable;
 import org.gradle.api.GradleException;
 import org.gradle.api.Task;
@@ -64,43 +62,49 @@ public abstract class AbstractNestedRuntimeBeanNode extends RuntimeBeanNode<Obje
         }
     }
 
-    private static class BeanPropertyValue implements PropertyValue {
+    private static class BeanPropertyValue implements PropertyValue, Factory<Object> {
+        private static final Object[] NO_ARGS = new Object[0];
+
         private final Method method;
         private final Object bean;
-        private final Supplier<Object> valueSupplier = Suppliers.memoize(new Supplier<Object>() {
-            @Override
-            @Nullable
-            public Object get() {
-                return DeprecationLogger.whileDisabled(new Factory<Object>() {
-                    @Override
-                    public Object create() {
-                        try {
-                            return method.invoke(bean);
-                        } catch (InvocationTargetException e) {
-                            throw UncheckedException.throwAsUncheckedException(e.getCause());
-                        } catch (Exception e) {
-                            throw new GradleException(String.format("Could not call %s.%s() on %s", method.getDeclaringClass().getSimpleName(), method.getName(), bean), e);
-                        }
-                    }
-                });
-            }
-        });
+        private boolean resolved;
+        private Object value;
 
         public BeanPropertyValue(Object bean, Method method) {
             this.bean = bean;
             this.method = method;
-            method.setAccessible(true);
+        }
+
+        @Nullable
+        private synchronized Object getValue() {
+            if (!resolved) {
+                value = DeprecationLogger.whileDisabled(this);
+                resolved = true;
+            }
+            return value;
+        }
+
+        @Nullable
+        @Override
+        public Object create() {
+            try {
+                return method.invoke(bean, NO_ARGS);
+            } catch (InvocationTargetException e) {
+                throw UncheckedException.throwAsUncheckedException(e.getCause());
+            } catch (Exception e) {
+                throw new GradleException(String.format("Could not call %s.%s() on %s", method.getDeclaringClass().getSimpleName(), method.getName(), bean), e);
+            }
         }
 
         @Override
         public TaskDependencyContainer getTaskDependencies() {
             if (isProvider()) {
-                return (TaskDependencyContainer) valueSupplier.get();
+                return (TaskDependencyContainer) getValue();
             } else if (isBuildable()) {
                 return new TaskDependencyContainer() {
                     @Override
                     public void visitDependencies(TaskDependencyResolveContext context) {
-                        context.add(valueSupplier.get());
+                        context.add(getValue());
                     }
                 };
             }
@@ -110,7 +114,7 @@ public abstract class AbstractNestedRuntimeBeanNode extends RuntimeBeanNode<Obje
         @Override
         public void attachProducer(Task producer) {
             if (isProvider()) {
-                Object value = valueSupplier.get();
+                Object value = getValue();
                 if (value instanceof PropertyInternal) {
                     ((PropertyInternal) value).attachProducer(producer);
                 }
@@ -120,7 +124,7 @@ public abstract class AbstractNestedRuntimeBeanNode extends RuntimeBeanNode<Obje
         @Override
         public void maybeFinalizeValue() {
             if (isProvider()) {
-                Object value = valueSupplier.get();
+                Object value = getValue();
                 if (value instanceof PropertyInternal) {
                     ((PropertyInternal) value).finalizeValueOnReadAndWarnAboutChanges();
                 }
@@ -138,7 +142,7 @@ public abstract class AbstractNestedRuntimeBeanNode extends RuntimeBeanNode<Obje
         @Nullable
         @Override
         public Object call() {
-            Object value = valueSupplier.get();
+            Object value = getValue();
             // Replace absent Provider with null.
             // This is required for allowing optional provider properties - all code which unpacks providers calls Provider.get() and would fail if an optional provider is passed.
             // Returning null from a Callable is ignored, and PropertyValue is a callable.
@@ -151,7 +155,7 @@ public abstract class AbstractNestedRuntimeBeanNode extends RuntimeBeanNode<Obje
         @Nullable
         @Override
         public Object getUnprocessedValue() {
-            return valueSupplier.get();
+            return getValue();
         }
     }
 }
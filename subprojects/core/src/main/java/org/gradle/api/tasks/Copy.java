@@ -22,6 +22,8 @@ import org.gradle.api.internal.file.copy.CopySpecInternal;
 import org.gradle.api.internal.file.copy.DestinationRootCopySpec;
 import org.gradle.api.internal.file.copy.FileCopyAction;
 import org.gradle.internal.file.PathToFileResolver;
+import org.gradle.internal.hash.FileHasher;
+import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.reflect.Instantiator;
 
 import java.io.File;
@@ -75,7 +77,7 @@ public class Copy extends AbstractCopyTask {
         if (destinationDir == null) {
             throw new InvalidUserDataException("No copy destination directory has been specified, use 'into' to specify a target directory.");
         }
-        return new FileCopyAction(getFileLookup().getFileResolver(destinationDir));
+        return new FileCopyAction(getFileLookup().getFileResolver(destinationDir), getServices().get(BuildOperationExecutor.class), getServices().get(FileHasher.class), getFileSystem());
     }
 
     @Override
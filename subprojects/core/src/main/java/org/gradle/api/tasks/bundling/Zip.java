@@ -18,6 +18,7 @@ package org.gradle.api.tasks.bundling;
 import org.apache.tools.zip.ZipOutputStream;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.internal.DocumentationRegistry;
+import org.gradle.api.internal.file.archive.ParallelZipCopyAction;
 import org.gradle.api.internal.file.archive.ZipCopyAction;
 import org.gradle.api.internal.file.copy.CopyAction;
 import org.gradle.api.internal.file.copy.DefaultZipCompressor;
@@ -25,6 +26,7 @@ import org.gradle.api.internal.file.copy.ZipCompressor;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
+import org.gradle.internal.operations.BuildOperationExecutor;
 
 import javax.annotation.Nullable;
 import java.nio.charset.Charset;
@@ -60,7 +62,14 @@ public class Zip extends AbstractArchiveTask {
     @Override
     protected CopyAction createCopyAction() {
         DocumentationRegistry documentationRegistry = getServices().get(DocumentationRegistry.class);
-        return new ZipCopyAction(getArchiveFile().get().getAsFile(), getCompressor(), documentationRegistry, metadataCharset, isPreserveFileTimestamps());
+        ZipCompressor compressor = getCompressor();
+        if (Boolean.getBoolean(ParallelZipCopyAction.PARALLEL_ZIP_PROPERTY) && compressor.getClass() == DefaultZipCompressor.class) {
+            DefaultZipCompressor defaultCompressor = (DefaultZipCompressor) compressor;
+            boolean deflate = defaultCompressor.getEntryCompressionMethod() == ZipOutputStream.DEFLATED;
+            BuildOperationExecutor buildOperationExecutor = getServices().get(BuildOperationExecutor.class);
+            return new ParallelZipCopyAction(getArchiveFile().get().getAsFile(), deflate, defaultCompressor.isZip64Allowed(), documentationRegistry, metadataCharset, isPreserveFileTimestamps(), buildOperationExecutor);
+        }
+        return new ZipCopyAction(getArchiveFile().get().getAsFile(), compressor, documentationRegistry, metadataCharset, isPreserveFileTimestamps());
     }
 
     /**
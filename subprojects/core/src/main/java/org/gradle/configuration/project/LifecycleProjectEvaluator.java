@@ -65,7 +65,15 @@ public class LifecycleProjectEvaluator implements ProjectEvaluator {
     @Override
     public void evaluate(final ProjectInternal project, final ProjectStateInternal state) {
         if (state.isUnconfigured()) {
-            buildOperationExecutor.run(new EvaluateProject(project, state));
+            project.getMutationState().withMutableState(new Runnable() {
+                @Override
+                public void run() {
+                    // Check again while holding the project lock, as another thread may have configured the project in the meantime
+                    if (state.isUnconfigured()) {
+                        buildOperationExecutor.run(new EvaluateProject(project, state));
+                    }
+                }
+            });
         }
     }
 
@@ -16,16 +16,36 @@
 
 package org.gradle.execution;
 
+import com.google.common.collect.Lists;
+import org.gradle.api.Action;
 import org.gradle.api.BuildCancelledException;
 import org.gradle.api.Project;
+import org.gradle.api.internal.project.ParallelProjectConfiguration;
 import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+
+import java.util.Collections;
+import java.util.List;
 
 public class TaskPathProjectEvaluator implements ProjectConfigurer {
+    /**
+     * Enables configuring the projects of a hierarchy in parallel, level by level, when parallel project execution is enabled.
+     */
+    public static final String PARALLEL_CONFIGURATION_PROPERTY = "org.gradle.internal.parallel.configuration";
+
     private final BuildCancellationToken cancellationToken;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final boolean parallelConfiguration;
 
-    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken) {
+    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken, BuildOperationExecutor buildOperationExecutor, boolean parallelConfiguration) {
         this.cancellationToken = cancellationToken;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.parallelConfiguration = parallelConfiguration;
     }
 
     @Override
@@ -59,6 +79,10 @@ public class TaskPathProjectEvaluator implements ProjectConfigurer {
 
     @Override
     public void configureHierarchy(ProjectInternal project) {
+        if (parallelConfiguration) {
+            configureHierarchyInParallel(project, false);
+            return;
+        }
         configure(project);
         for (Project sub : project.getSubprojects()) {
             configure((ProjectInternal) sub);
@@ -67,9 +91,80 @@ public class TaskPathProjectEvaluator implements ProjectConfigurer {
 
     @Override
     public void configureHierarchyFully(ProjectInternal project) {
+        if (parallelConfiguration) {
+            configureHierarchyInParallel(project, true);
+            return;
+        }
         configureFully(project);
         for (Project sub : project.getSubprojects()) {
             configureFully((ProjectInternal) sub);
         }
     }
+
+    /**
+     * Configures the projects of the hierarchy one level at a time, so that each project is configured after its parent.
+     * The projects of a level are configured concurrently, each one holding its own project lock.
+     */
+    private void configureHierarchyInParallel(ProjectInternal project, boolean fully) {
+        configure(project, fully);
+        List<ProjectInternal> level = childrenOf(Collections.singletonList(project));
+        while (!level.isEmpty()) {
+            configureInParallel(level, fully);
+            level = childrenOf(level);
+        }
+    }
+
+    private void configureInParallel(final List<ProjectInternal> projects, final boolean fully) {
+        buildOperationExecutor.runAll(new Action<BuildOperationQueue<RunnableBuildOperation>>() {
+            @Override
+            public void execute(BuildOperationQueue<RunnableBuildOperation> queue) {
+                for (ProjectInternal project : projects) {
+                    queue.add(new ConfigureProjectInParallel(project, fully));
+                }
+            }
+        });
+    }
+
+    private void configure(ProjectInternal project, boolean fully) {
+        if (fully) {
+            configureFully(project);
+        } else {
+            configure(project);
+        }
+    }
+
+    private static List<ProjectInternal> childrenOf(List<ProjectInternal> projects) {
+        List<ProjectInternal> children = Lists.newArrayList();
+        for (ProjectInternal project : projects) {
+            for (Project child : project.getChildProjects().values()) {
+                children.add((ProjectInternal) child);
+            }
+        }
+        return children;
+    }
+
+    private class ConfigureProjectInParallel implements RunnableBuildOperation {
+        private final ProjectInternal project;
+        private final boolean fully;
+
+        private ConfigureProjectInParallel(ProjectInternal project, boolean fully) {
+            this.project = project;
+            this.fully = fully;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            ParallelProjectConfiguration.configure(project, new Runnable() {
+                @Override
+                public void run() {
+                    configure(project, fully);
+                }
+            });
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Configure " + project.getDisplayName() + " in parallel");
+        }
+    }
 }
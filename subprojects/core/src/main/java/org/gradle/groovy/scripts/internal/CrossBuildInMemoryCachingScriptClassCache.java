@@ -25,11 +25,28 @@ import org.gradle.groovy.scripts.ScriptSource;
 import org.gradle.internal.Cast;
 import org.gradle.internal.hash.HashCode;
 
+/**
+ * Caches compiled scripts across builds, keyed by script class name and parent class loader.
+ *
+ * When sharing by content is enabled, scripts at different locations with the same content, compiled against the same
+ * parent class loader, also share a single compiled script class. Script classes are named after the first script
+ * compiled with that content, so stack traces and error locations for the other scripts refer to that script.
+ */
 public class CrossBuildInMemoryCachingScriptClassCache {
+    public static final String SHARE_BY_CONTENT_PROPERTY = "org.gradle.internal.script.share.by.content";
+
     private final CrossBuildInMemoryCache<ScriptCacheKey, CachedCompiledScript> cachedCompiledScripts;
+    private final CrossBuildInMemoryCache<ScriptCacheKey, CompiledScript<?, ?>> compiledScriptsByContent;
+    private final boolean shareByContent;
 
     public CrossBuildInMemoryCachingScriptClassCache(CrossBuildInMemoryCacheFactory cacheFactory) {
-        cachedCompiledScripts = cacheFactory.newCache();
+        this(cacheFactory, false);
+    }
+
+    public CrossBuildInMemoryCachingScriptClassCache(CrossBuildInMemoryCacheFactory cacheFactory, boolean shareByContent) {
+        this.cachedCompiledScripts = cacheFactory.newCache();
+        this.compiledScriptsByContent = cacheFactory.newCache();
+        this.shareByContent = shareByContent;
     }
 
     public <T extends Script, M> CompiledScript<T, M> getOrCompile(ScriptSource source, ClassLoader classLoader,
@@ -46,7 +63,20 @@ public class CrossBuildInMemoryCachingScriptClassCache {
                 return Cast.uncheckedCast(cached.compiledScript);
             }
         }
-        CompiledScript<T, M> compiledScript = delegate.compile(source, classLoader, classLoaderId, operation, scriptBaseClass, verifier);
+        if (!shareByContent) {
+            CompiledScript<T, M> compiledScript = delegate.compile(source, classLoader, classLoaderId, operation, scriptBaseClass, verifier);
+            cachedCompiledScripts.put(key, new CachedCompiledScript(hash, compiledScript));
+            return compiledScript;
+        }
+
+        // The class loader is part of the key, as script classes link against the classes visible from it.
+        // Parent class loaders with an equal hierarchy hash are not interchangeable, as they define distinct plugin and buildSrc types
+        ScriptCacheKey contentKey = new ScriptCacheKey(hash.toString(), classLoader, operation.getId());
+        CompiledScript<T, M> compiledScript = Cast.uncheckedCast(compiledScriptsByContent.get(contentKey));
+        if (compiledScript == null) {
+            compiledScript = delegate.compile(source, classLoader, classLoaderId, operation, scriptBaseClass, verifier);
+            compiledScriptsByContent.put(contentKey, compiledScript);
+        }
         cachedCompiledScripts.put(key, new CachedCompiledScript(hash, compiledScript));
         return compiledScript;
     }
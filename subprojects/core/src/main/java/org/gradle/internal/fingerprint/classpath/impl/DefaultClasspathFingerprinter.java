@@ -20,6 +20,7 @@ import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.api.internal.changedetection.state.ResourceFilter;
 import org.gradle.api.internal.changedetection.state.ResourceSnapshotterCacheService;
 import org.gradle.api.internal.changedetection.state.RuntimeClasspathResourceHasher;
+import org.gradle.api.internal.changedetection.state.ZipHashingExecutor;
 import org.gradle.api.tasks.ClasspathNormalizer;
 import org.gradle.api.tasks.FileNormalizer;
 import org.gradle.internal.fingerprint.classpath.ClasspathFingerprinter;
@@ -31,12 +32,14 @@ public class DefaultClasspathFingerprinter extends AbstractFileCollectionFingerp
         ResourceSnapshotterCacheService cacheService,
         FileSystemSnapshotter fileSystemSnapshotter,
         ResourceFilter classpathResourceFilter,
+        ZipHashingExecutor zipHashingExecutor,
         StringInterner stringInterner
     ) {
         super(ClasspathFingerprintingStrategy.runtimeClasspath(
             classpathResourceFilter,
             new RuntimeClasspathResourceHasher(),
             cacheService,
+            zipHashingExecutor,
             stringInterner
             ),
             fileSystemSnapshotter);
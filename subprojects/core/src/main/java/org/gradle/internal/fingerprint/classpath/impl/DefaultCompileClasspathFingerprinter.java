@@ -20,6 +20,7 @@ import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.api.internal.changedetection.state.AbiExtractingClasspathResourceHasher;
 import org.gradle.api.internal.changedetection.state.CachingResourceHasher;
 import org.gradle.api.internal.changedetection.state.ResourceSnapshotterCacheService;
+import org.gradle.api.internal.changedetection.state.ZipHashingExecutor;
 import org.gradle.api.tasks.CompileClasspathNormalizer;
 import org.gradle.api.tasks.FileNormalizer;
 import org.gradle.internal.fingerprint.classpath.CompileClasspathFingerprinter;
@@ -27,10 +28,11 @@ import org.gradle.internal.fingerprint.impl.AbstractFileCollectionFingerprinter;
 import org.gradle.internal.snapshot.FileSystemSnapshotter;
 
 public class DefaultCompileClasspathFingerprinter extends AbstractFileCollectionFingerprinter implements CompileClasspathFingerprinter {
-    public DefaultCompileClasspathFingerprinter(ResourceSnapshotterCacheService cacheService, FileSystemSnapshotter fileSystemSnapshotter, StringInterner stringInterner) {
+    public DefaultCompileClasspathFingerprinter(ResourceSnapshotterCacheService cacheService, FileSystemSnapshotter fileSystemSnapshotter, ZipHashingExecutor zipHashingExecutor, StringInterner stringInterner) {
         super(ClasspathFingerprintingStrategy.compileClasspath(
-                    new CachingResourceHasher(new AbiExtractingClasspathResourceHasher(), cacheService),
+                    new CachingResourceHasher(new AbiExtractingClasspathResourceHasher(cacheService), cacheService),
                     cacheService,
+                    zipHashingExecutor,
                     stringInterner
                 ), fileSystemSnapshotter);
     }
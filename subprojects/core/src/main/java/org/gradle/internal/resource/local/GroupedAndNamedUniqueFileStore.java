@@ -19,6 +19,7 @@ import org.gradle.api.Action;
 import org.gradle.api.Namer;
 import org.gradle.api.internal.file.TemporaryFileProvider;
 import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.hash.HashValue;
 
 import java.io.File;
 import java.util.Set;
@@ -49,6 +50,11 @@ public class GroupedAndNamedUniqueFileStore<K> implements FileStore<K>, FileStor
         return markAccessed(delegate.move(toPath(key, getChecksum(source)), source));
     }
 
+    @Override
+    public LocallyAvailableResource move(K key, File source, HashValue sha1) {
+        return markAccessed(delegate.move(toPath(key, sha1.asHexString()), source));
+    }
+
     @Override
     public Set<? extends LocallyAvailableResource> search(K key) {
         return delegate.search(toPath(key, "*"));
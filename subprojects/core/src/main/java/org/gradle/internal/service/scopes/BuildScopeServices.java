@@ -147,6 +147,7 @@ import org.gradle.internal.classloader.ClassLoaderFactory;
 import org.gradle.internal.classloader.ClassLoaderHierarchyHasher;
 import org.gradle.internal.classpath.CachedClasspathTransformer;
 import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ParallelismConfigurationManager;
 import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.hash.FileHasher;
 import org.gradle.internal.hash.StreamHasher;
@@ -399,8 +400,10 @@ public class BuildScopeServices extends DefaultServiceRegistry {
         );
     }
 
-    protected ProjectConfigurer createProjectConfigurer(BuildCancellationToken cancellationToken) {
-        return new TaskPathProjectEvaluator(cancellationToken);
+    protected ProjectConfigurer createProjectConfigurer(BuildCancellationToken cancellationToken, BuildOperationExecutor buildOperationExecutor, ParallelismConfigurationManager parallelismConfigurationManager) {
+        boolean parallelConfiguration = Boolean.getBoolean(TaskPathProjectEvaluator.PARALLEL_CONFIGURATION_PROPERTY)
+            && parallelismConfigurationManager.getParallelismConfiguration().isParallelProjectExecutionEnabled();
+        return new TaskPathProjectEvaluator(cancellationToken, buildOperationExecutor, parallelConfiguration);
     }
 
     protected ProjectsPreparer createBuildConfigurer(ProjectConfigurer projectConfigurer, BuildStateRegistry buildStateRegistry, BuildLoader buildLoader, ListenerManager listenerManager, BuildOperationExecutor buildOperationExecutor) {
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state
+
+import org.gradle.internal.Factory
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.hash.Hashing
+import org.gradle.internal.serialize.HashCodeSerializer
+import org.gradle.internal.snapshot.RegularFileSnapshot
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.testfixtures.internal.InMemoryIndexedCache
+import org.junit.Rule
+import spock.lang.Specification
+
+class AbiExtractingClasspathResourceHasherTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def classBytes = getClass().getResourceAsStream("${getClass().simpleName}.class").bytes
+
+    def "looks up the ABI hash of class entries by content hash"() {
+        def cacheService = Mock(ResourceSnapshotterCacheService)
+        def hasher = new AbiExtractingClasspathResourceHasher(cacheService)
+        def expectedHash = HashCode.fromInt(123)
+
+        when:
+        def actualHash = hasher.hash(zipEntry("org/gradle/Foo.class", classBytes))
+
+        then:
+        1 * cacheService.hashContent(Hashing.hashBytes(classBytes), _, _) >> expectedHash
+        0 * _
+
+        actualHash == expectedHash
+    }
+
+    def "ignores non-class entries without consulting the cache"() {
+        def cacheService = Mock(ResourceSnapshotterCacheService)
+        def hasher = new AbiExtractingClasspathResourceHasher(cacheService)
+
+        when:
+        def actualHash = hasher.hash(zipEntry("org/gradle/foo.properties", "foo=bar".bytes))
+
+        then:
+        0 * _
+
+        actualHash == null
+    }
+
+    def "cached ABI hash is the same as the uncached one"() {
+        def cacheService = new DefaultResourceSnapshotterCacheService(new InMemoryIndexedCache(new HashCodeSerializer()))
+        def cachingHasher = new AbiExtractingClasspathResourceHasher(cacheService)
+        def hasher = new AbiExtractingClasspathResourceHasher()
+        def entry = zipEntry("org/gradle/Foo.class", classBytes)
+
+        expect:
+        def expectedHash = hasher.hash(entry)
+        expectedHash != null
+        cachingHasher.hash(entry) == expectedHash
+        cachingHasher.hash(entry) == expectedHash
+    }
+
+    def "falls back to the content hash for malformed class entries"() {
+        def cacheService = new DefaultResourceSnapshotterCacheService(new InMemoryIndexedCache(new HashCodeSerializer()))
+        def cachingHasher = new AbiExtractingClasspathResourceHasher(cacheService)
+        def hasher = new AbiExtractingClasspathResourceHasher()
+        def malformedBytes = "not a class".bytes
+        def entry = zipEntry("org/gradle/Foo.class", malformedBytes)
+
+        expect:
+        hasher.hash(entry) == Hashing.hashBytes(malformedBytes)
+        cachingHasher.hash(entry) == Hashing.hashBytes(malformedBytes)
+    }
+
+    def "only parses the changed classes of a changed jar"() {
+        def parsedClasses = []
+        def cacheService = new DefaultResourceSnapshotterCacheService(new InMemoryIndexedCache(new HashCodeSerializer())) {
+            @Override
+            HashCode hashContent(HashCode contentHash, HashCode configurationHash, Factory<HashCode> hasher) {
+                return super.hashContent(contentHash, configurationHash, {
+                    parsedClasses << contentHash
+                    hasher.create()
+                } as Factory<HashCode>)
+            }
+        }
+        def zipHasher = new ZipHasher(new AbiExtractingClasspathResourceHasher(cacheService), ResourceFilter.FILTER_NOTHING)
+        def content = tmpDir.createDir("content")
+        content.file("org/gradle/Foo.class").bytes = classBytes
+        content.file("org/gradle/Bar.class").bytes = classBytes(ZipHasher)
+        content.file("org/gradle/Baz.class").bytes = classBytes(ResourceHasher)
+        def jar = tmpDir.file("classes.jar")
+        content.zipTo(jar)
+
+        when:
+        def originalHash = zipHasher.hash(snapshot(jar))
+
+        then:
+        parsedClasses.size() == 3
+
+        when:
+        parsedClasses.clear()
+        content.file("org/gradle/Baz.class").bytes = classBytes(ZipEntry)
+        content.zipTo(jar)
+        def newHash = zipHasher.hash(snapshot(jar))
+
+        then:
+        parsedClasses == [Hashing.hashBytes(classBytes(ZipEntry))]
+        newHash != originalHash
+    }
+
+    private static byte[] classBytes(Class<?> type) {
+        return type.getResourceAsStream("${type.simpleName}.class").bytes
+    }
+
+    private static RegularFileSnapshot snapshot(File file) {
+        return new RegularFileSnapshot(file.path, file.name, HashCode.fromInt(0), 0)
+    }
+
+    private ZipEntry zipEntry(String name, byte[] content) {
+        return Stub(ZipEntry) {
+            getName() >> name
+            getInputStream() >> { new ByteArrayInputStream(content) }
+        }
+    }
+}
@@ -17,13 +17,17 @@
 package org.gradle.api.internal.changedetection.state
 
 
+import org.gradle.internal.concurrent.DefaultExecutorFactory
 import org.gradle.internal.hash.HashCode
+import org.gradle.internal.hash.Hasher
 import org.gradle.internal.snapshot.RegularFileSnapshot
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.gradle.testing.internal.util.Specification
 import org.junit.Rule
 
+import java.util.concurrent.atomic.AtomicBoolean
+
 class ZipHasherTest extends Specification {
 
     @Rule
@@ -73,6 +77,80 @@ class ZipHasherTest extends Specification {
         hash1 != hash2
     }
 
+    def "hashing entries in parallel produces the same hash as hashing them sequentially"() {
+        given:
+        def content = tmpDir.createDir("content")
+        200.times { content.file("dir${it % 7}/file${it}.txt") << "Content ${it}" }
+        def innerContent = tmpDir.createDir("inner")
+        innerContent.file("foo") << "Foo"
+        innerContent.zipTo(content.file("inner.jar"))
+        def jar = tmpDir.file("content.jar")
+        content.zipTo(jar)
+        def executor = new ZipHashingExecutor(new DefaultExecutorFactory().create("zip hashing", 4), 0)
+        def parallelZipHasher = new ZipHasher(new RuntimeClasspathResourceHasher(), ResourceFilter.FILTER_NOTHING, executor)
+
+        expect:
+        parallelZipHasher.hash(snapshot(jar)) == zipHasher.hash(snapshot(jar))
+
+        cleanup:
+        executor?.stop()
+    }
+
+    def "stops hashing entries in parallel when an entry cannot be hashed"() {
+        given:
+        def content = tmpDir.createDir("content")
+        200.times { content.file("file${it}.txt") << "Content ${it}" }
+        def jar = tmpDir.file("content.jar")
+        content.zipTo(jar)
+        def executor = new ZipHashingExecutor(new DefaultExecutorFactory().create("zip hashing", 4), 0)
+        def resourceHasher = new FailingResourceHasher("file100.txt")
+        def parallelZipHasher = new ZipHasher(resourceHasher, ResourceFilter.FILTER_NOTHING, executor)
+        def snapshot = new RegularFileSnapshot(jar.path, jar.name, HashCode.fromInt(123), 0)
+
+        when:
+        def hash = parallelZipHasher.hash(snapshot)
+        resourceHasher.done.set(true)
+        Thread.sleep(100)
+
+        then:
+        hash == snapshot.hash
+        !resourceHasher.hashedAfterDone.get()
+
+        cleanup:
+        executor?.stop()
+    }
+
+    private static class FailingResourceHasher implements ResourceHasher {
+        final String failingEntry
+        final AtomicBoolean done = new AtomicBoolean()
+        final AtomicBoolean hashedAfterDone = new AtomicBoolean()
+
+        FailingResourceHasher(String failingEntry) {
+            this.failingEntry = failingEntry
+        }
+
+        @Override
+        HashCode hash(ZipEntry zipEntry) throws IOException {
+            if (zipEntry.name == failingEntry) {
+                throw new IOException("Cannot hash ${zipEntry.name}")
+            }
+            Thread.sleep(5)
+            if (done.get()) {
+                hashedAfterDone.set(true)
+            }
+            return HashCode.fromInt(zipEntry.inputStream.text.hashCode())
+        }
+
+        @Override
+        HashCode hash(RegularFileSnapshot fileSnapshot) {
+            throw new UnsupportedOperationException()
+        }
+
+        @Override
+        void appendConfigurationToHasher(Hasher hasher) {
+        }
+    }
+
     private static RegularFileSnapshot snapshot(TestFile file) {
         new RegularFileSnapshot(file.path, file.name, HashCode.fromInt(0), 0)
     }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive
+
+import org.apache.tools.zip.ZipOutputStream
+import org.gradle.api.file.RelativePath
+import org.gradle.api.internal.DocumentationRegistry
+import org.gradle.api.internal.file.copy.DefaultZipCompressor
+import org.gradle.api.internal.file.copy.FileCopyDetailsInternal
+import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+
+import static org.gradle.api.internal.file.copy.CopyActionExecuterUtil.visit
+
+class ParallelZipCopyActionTest extends Specification {
+    @Rule
+    public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def buildOperationExecutor = new TestBuildOperationExecutor()
+    TestFile zipFile
+
+    def setup() {
+        zipFile = tmpDir.testDirectory.file("test.zip")
+    }
+
+    def "writes entries in the order they are visited"() {
+        def visitor = new ParallelZipCopyAction(zipFile, true, false, new DocumentationRegistry(), "UTF-8", false, buildOperationExecutor)
+        def files = (1..250).collect { unfilteredFile("dir/file${it}.txt") }
+
+        when:
+        visit(visitor, ([dir("dir")] + files + [filteredFile("filtered.txt")]) as FileCopyDetailsInternal[])
+
+        then:
+        def zip = new ZipFile(zipFile)
+        def entries = zip.entries().toList()
+        entries*.name == ["dir/"] + (1..250).collect { "dir/file${it}.txt" } + ["filtered.txt"]
+        entries.every { it.time == ZipCopyAction.CONSTANT_TIME_FOR_ZIP_ENTRIES }
+        zip.getInputStream(zip.getEntry("dir/file42.txt")).text == "contents of dir/file42.txt"
+        zip.getInputStream(zip.getEntry("filtered.txt")).text == "contents of filtered.txt"
+        zip.getEntry("dir/file42.txt").method == ZipEntry.DEFLATED
+
+        and:
+        buildOperationExecutor.log.records.size() == 3
+
+        cleanup:
+        zip?.close()
+    }
+
+    @Unroll
+    def "writes the same entries as ZipCopyAction (deflate = #deflate)"() {
+        def otherZipFile = tmpDir.testDirectory.file("other.zip")
+        def visitor = new ParallelZipCopyAction(zipFile, deflate, false, new DocumentationRegistry(), "UTF-8", false, buildOperationExecutor)
+        def otherVisitor = new ZipCopyAction(otherZipFile, new DefaultZipCompressor(false, deflate ? ZipOutputStream.DEFLATED : ZipOutputStream.STORED), new DocumentationRegistry(), "UTF-8", false)
+
+        when:
+        visit(visitor, sampleFiles())
+        visit(otherVisitor, sampleFiles())
+
+        then:
+        // Already compressed files are always stored, so compare the entries without their compression method
+        def entries = entriesOf(zipFile)
+        entries*.findAll { it.key != "method" } == entriesOf(otherZipFile)*.findAll { it.key != "method" }
+        entries.size() == 154
+        entries.findAll { !it.name.endsWith("/") && it.name != "lib/nested.jar" }.every { it.method == (deflate ? ZipEntry.DEFLATED : ZipEntry.STORED) }
+        entries.find { it.name == "lib/nested.jar" }.method == ZipEntry.STORED
+
+        where:
+        deflate << [true, false]
+    }
+
+    def "stores already compressed files instead of deflating them"() {
+        def visitor = new ParallelZipCopyAction(zipFile, true, false, new DocumentationRegistry(), "UTF-8", false, buildOperationExecutor)
+
+        when:
+        visit(visitor, [unfilteredFile("lib/nested.jar"), unfilteredFile("images/logo.PNG"), filteredFile("lib/filtered.zip"), unfilteredFile("file.txt")] as FileCopyDetailsInternal[])
+
+        then:
+        def zip = new ZipFile(zipFile)
+        zip.getEntry("lib/nested.jar").method == ZipEntry.STORED
+        zip.getEntry("images/logo.PNG").method == ZipEntry.STORED
+        zip.getEntry("lib/filtered.zip").method == ZipEntry.STORED
+        zip.getEntry("file.txt").method == ZipEntry.DEFLATED
+        zip.getInputStream(zip.getEntry("lib/nested.jar")).text == "contents of lib/nested.jar"
+        zip.getInputStream(zip.getEntry("lib/filtered.zip")).text == "contents of lib/filtered.zip"
+
+        cleanup:
+        zip?.close()
+    }
+
+    private FileCopyDetailsInternal[] sampleFiles() {
+        ([dir("dir")] + (1..150).collect { unfilteredFile("dir/file${it}.txt") } + [unfilteredFile("lib/nested.jar"), filteredFile("filtered.txt"), unfilteredFile("dir/\u00e9t\u00e9.txt")]) as FileCopyDetailsInternal[]
+    }
+
+    private static List<Map<String, ?>> entriesOf(File file) {
+        def zip = new org.apache.commons.compress.archivers.zip.ZipFile(file)
+        try {
+            zip.entriesInPhysicalOrder.toList().collect { entry ->
+                [
+                    name: entry.name,
+                    method: entry.method,
+                    time: entry.time,
+                    unixMode: entry.unixMode,
+                    size: entry.size,
+                    crc: entry.crc,
+                    utf8Names: entry.generalPurposeBit.usesUTF8ForNames(),
+                    content: zip.getInputStream(entry).bytes
+                ]
+            }
+        } finally {
+            zip.close()
+        }
+    }
+
+    private FileCopyDetailsInternal unfilteredFile(String path) {
+        def content = "contents of $path".bytes
+        def mock = Mock(FileCopyDetailsInternal)
+        mock.getRelativePath() >> RelativePath.parse(true, path)
+        mock.getName() >> RelativePath.parse(true, path).lastName
+        mock.getLastModified() >> 1000L
+        mock.isDirectory() >> false
+        mock.isUnfilteredRegularFile() >> true
+        mock.getSize() >> content.length
+        mock.getMode() >> 0644
+        mock.copyTo(_ as OutputStream) >> { OutputStream out ->
+            out.write(content)
+        }
+        mock
+    }
+
+    private FileCopyDetailsInternal filteredFile(String path) {
+        def mock = Mock(FileCopyDetailsInternal)
+        mock.getRelativePath() >> RelativePath.parse(true, path)
+        mock.getName() >> RelativePath.parse(true, path).lastName
+        mock.getLastModified() >> 1000L
+        mock.isDirectory() >> false
+        mock.isUnfilteredRegularFile() >> false
+        mock.getMode() >> 0644
+        mock.copyTo(_ as OutputStream) >> { OutputStream out ->
+            out << "contents of $path"
+        }
+        mock
+    }
+
+    private FileCopyDetailsInternal dir(String path) {
+        def mock = Mock(FileCopyDetailsInternal)
+        mock.getRelativePath() >> RelativePath.parse(false, path)
+        mock.getLastModified() >> 1000L
+        mock.isDirectory() >> true
+        mock.getMode() >> 0755
+        mock
+    }
+}
@@ -18,9 +18,14 @@ package org.gradle.api.internal.file.copy
 
 import org.gradle.api.file.RelativePath
 import org.gradle.api.internal.file.TestFiles
+import org.gradle.internal.hash.FileHasher
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.nativeintegration.filesystem.Chmod
+import org.gradle.internal.operations.TestBuildOperationExecutor
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
 import spock.lang.Specification
+import spock.util.environment.RestoreSystemProperties
 
 import static org.gradle.api.internal.file.copy.CopyActionExecuterUtil.visit
 
@@ -44,6 +49,109 @@ class FileCopyActionTest extends Specification {
         )
     }
 
+    @RestoreSystemProperties
+    def "copies unfiltered regular files after visiting all files when copying in parallel"() {
+        System.setProperty(FileCopyAction.PARALLEL_COPY_PROPERTY, "true")
+        def buildOperationExecutor = new TestBuildOperationExecutor()
+        FileCopyAction visitor = new FileCopyAction(TestFiles.resolver(destDir), buildOperationExecutor, null, null)
+        def files = (1..250).collect { unfilteredFile(new RelativePath(true, "dir", "file${it}.txt"), new File(destDir, "dir/file${it}.txt")) }
+
+        expect:
+        visit(visitor, (files + [filteredFile(new RelativePath(true, "filtered.txt"), new File(destDir, "filtered.txt"))]) as FileCopyDetailsInternal[])
+        buildOperationExecutor.log.records.size() == 3
+    }
+
+    @RestoreSystemProperties
+    def "later file copied to the same target replaces earlier file when copying in parallel"() {
+        System.setProperty(FileCopyAction.PARALLEL_COPY_PROPERTY, "true")
+        FileCopyAction visitor = new FileCopyAction(TestFiles.resolver(destDir), new TestBuildOperationExecutor(), null, null)
+        def target = new File(destDir, "file.txt")
+        def earlier = Mock(FileCopyDetailsInternal) {
+            _ * getRelativePath() >> new RelativePath(true, "file.txt")
+            _ * isUnfilteredRegularFile() >> true
+            0 * copyTo(_)
+        }
+        def later = unfilteredFile(new RelativePath(true, "file.txt"), target)
+        def earlierFiltered = Mock(FileCopyDetailsInternal) {
+            _ * getRelativePath() >> new RelativePath(true, "other.txt")
+            _ * isUnfilteredRegularFile() >> false
+            1 * copyTo(new File(destDir, "other.txt"))
+        }
+        def laterFiltered = Mock(FileCopyDetailsInternal) {
+            _ * getRelativePath() >> new RelativePath(true, "other.txt")
+            _ * isUnfilteredRegularFile() >> false
+            1 * copyTo(new File(destDir, "other.txt"))
+        }
+        def replacedByFiltered = Mock(FileCopyDetailsInternal) {
+            _ * getRelativePath() >> new RelativePath(true, "other.txt")
+            _ * isUnfilteredRegularFile() >> true
+            0 * copyTo(_)
+        }
+
+        expect:
+        visit(visitor, earlier, later, earlierFiltered, replacedByFiltered, laterFiltered)
+    }
+
+    @RestoreSystemProperties
+    def "does not rewrite unfiltered regular files whose target has the same content when skipping unchanged files"() {
+        System.setProperty(FileCopyAction.SKIP_UNCHANGED_FILES_PROPERTY, "true")
+        def fileHasher = Mock(FileHasher)
+        def chmod = Mock(Chmod)
+        FileCopyAction visitor = new FileCopyAction(TestFiles.resolver(destDir), null, fileHasher, chmod)
+        def unchangedTarget = new File(destDir, "unchanged.txt")
+        unchangedTarget.parentFile.mkdirs()
+        unchangedTarget.text = "content"
+        def changedTarget = new File(destDir, "changed.txt")
+        changedTarget.text = "old-content"
+        def unchanged = Mock(FileCopyDetailsInternal) {
+            _ * getRelativePath() >> new RelativePath(true, "unchanged.txt")
+            _ * isUnfilteredRegularFile() >> true
+            _ * getSize() >> 7
+            _ * getMode() >> 0644
+        }
+        def changed = Mock(FileCopyDetailsInternal) {
+            _ * getRelativePath() >> new RelativePath(true, "changed.txt")
+            _ * isUnfilteredRegularFile() >> true
+            _ * getSize() >> 11
+        }
+        def filtered = filteredFile(new RelativePath(true, "filtered.txt"), new File(destDir, "filtered.txt"))
+
+        when:
+        def result = visitor.execute { action -> [unchanged, changed, filtered].each { action.processFile(it) } }
+
+        then:
+        1 * fileHasher.hash(unchangedTarget) >> HashCode.fromInt(1)
+        1 * fileHasher.hash(unchanged) >> HashCode.fromInt(1)
+        1 * chmod.chmod(unchangedTarget, 0644)
+        0 * unchanged.copyTo(_)
+
+        and:
+        1 * fileHasher.hash(changedTarget) >> HashCode.fromInt(1)
+        1 * fileHasher.hash(changed) >> HashCode.fromInt(2)
+        1 * changed.copyTo(changedTarget) >> true
+
+        and:
+        result.didWork
+    }
+
+    private FileCopyDetailsInternal filteredFile(final RelativePath relativePath, final File targetFile) {
+        final FileCopyDetailsInternal details = Mock(FileCopyDetailsInternal)
+        _ * details.relativePath >> relativePath
+        _ * details.unfilteredRegularFile >> false
+        1 * details.copyTo(targetFile)
+        0 * details._
+        return details
+    }
+
+    private FileCopyDetailsInternal unfilteredFile(final RelativePath relativePath, final File targetFile) {
+        final FileCopyDetailsInternal details = Mock(FileCopyDetailsInternal)
+        _ * details.relativePath >> relativePath
+        _ * details.unfilteredRegularFile >> true
+        1 * details.copyTo(targetFile)
+        0 * details._
+        return details
+    }
+
     private FileCopyDetailsInternal file(final RelativePath relativePath, final File targetFile) {
         final FileCopyDetailsInternal details = Mock(FileCopyDetailsInternal)
         _ * details.relativePath >> relativePath
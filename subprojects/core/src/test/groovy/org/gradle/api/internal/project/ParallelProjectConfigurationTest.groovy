@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.project
+
+import org.gradle.api.InvalidUserCodeException
+import spock.lang.Specification
+
+class ParallelProjectConfigurationTest extends Specification {
+    def root = Stub(ProjectInternal)
+    def child = Stub(ProjectInternal) {
+        getParent() >> root
+    }
+    def grandChild = Stub(ProjectInternal) {
+        getParent() >> child
+    }
+    def sibling = Stub(ProjectInternal) {
+        getParent() >> root
+    }
+
+    def "any project can be configured when projects are not configured in parallel"() {
+        when:
+        ParallelProjectConfiguration.assertCanConfigure(sibling)
+        ParallelProjectConfiguration.assertCanConfigure(root)
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "project can configure itself and its subprojects when configured in parallel"() {
+        when:
+        ParallelProjectConfiguration.configure(child) {
+            ParallelProjectConfiguration.assertCanConfigure(child)
+            ParallelProjectConfiguration.assertCanConfigure(grandChild)
+        }
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "project cannot configure its parent when configured in parallel"() {
+        when:
+        ParallelProjectConfiguration.configure(child) {
+            ParallelProjectConfiguration.assertCanConfigure(root)
+        }
+
+        then:
+        thrown(InvalidUserCodeException)
+    }
+
+    def "project cannot configure other projects when configured in parallel"() {
+        when:
+        ParallelProjectConfiguration.configure(child) {
+            ParallelProjectConfiguration.assertCanConfigure(sibling)
+        }
+
+        then:
+        thrown(InvalidUserCodeException)
+    }
+
+    def "restores state after configuring in parallel"() {
+        when:
+        ParallelProjectConfiguration.configure(child) {}
+        ParallelProjectConfiguration.assertCanConfigure(sibling)
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "project can configure the project it depends on while it is evaluated"() {
+        when:
+        ParallelProjectConfiguration.configure(child) {
+            ParallelProjectConfiguration.configureDependency(sibling) {
+                ParallelProjectConfiguration.assertCanConfigure(sibling)
+            }
+            ParallelProjectConfiguration.assertCanConfigure(child)
+        }
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "configuring a project dependency does not restrict configuration when projects are not configured in parallel"() {
+        when:
+        ParallelProjectConfiguration.configureDependency(child) {
+            ParallelProjectConfiguration.assertCanConfigure(sibling)
+        }
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "extra properties of a project can only be set by the project and its parent projects when configured in parallel"() {
+        def extraProperties = new ParallelConfigurationExtraPropertiesExtension(child)
+
+        when:
+        ParallelProjectConfiguration.configure(root) {
+            extraProperties.set("a", 1)
+        }
+        ParallelProjectConfiguration.configure(child) {
+            extraProperties.b = 2
+        }
+
+        then:
+        extraProperties.get("a") == 1
+        extraProperties.get("b") == 2
+
+        when:
+        ParallelProjectConfiguration.configure(sibling) {
+            extraProperties.c = 3
+        }
+
+        then:
+        thrown(InvalidUserCodeException)
+        !extraProperties.has("c")
+    }
+}
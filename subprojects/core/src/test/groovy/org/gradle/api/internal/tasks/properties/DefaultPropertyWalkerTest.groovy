@@ -16,6 +16,8 @@
 
 package org.gradle.api.internal.tasks.properties
 
+import com.sun.management.ThreadMXBean
+import groovy.transform.CompileStatic
 import groovy.transform.EqualsAndHashCode
 import org.gradle.api.DefaultTask
 import org.gradle.api.Named
@@ -42,6 +44,8 @@ import org.gradle.internal.service.ServiceRegistryBuilder
 import org.gradle.internal.service.scopes.ExecutionGlobalServices
 import org.gradle.test.fixtures.AbstractProjectBuilderSpec
 
+import java.lang.management.ManagementFactory
+
 import static org.gradle.api.internal.tasks.properties.annotations.TaskAnnotations.PROCESSED_PROPERTY_TYPE_ANNOTATIONS
 import static org.gradle.api.internal.tasks.properties.annotations.TaskAnnotations.UNPROCESSED_PROPERTY_TYPE_ANNOTATIONS
 
@@ -224,6 +228,45 @@ class DefaultPropertyWalkerTest extends AbstractProjectBuilderSpec {
         Object nested
     }
 
+    def "reading property values does not allocate"() {
+        def task = project.tasks.create("myTask", TaskWithInput)
+        def propertyWalker = createPropertyWalker()
+        List<PropertyValue> values = []
+        def collectingVisitor = new PropertyVisitor.Adapter() {
+            @Override
+            void visitInputProperty(String propertyName, PropertyValue value, boolean optional) {
+                values << value
+            }
+        }
+        2000.times {
+            propertyWalker.visitProperties(task, validationContext, collectingVisitor)
+        }
+        // Let the reflective getter call settle before measuring
+        allocatedBytesReading(values.subList(0, 100))
+
+        when:
+        def allocatedBytes = allocatedBytesReading(values.subList(100, values.size()))
+
+        then:
+        allocatedBytes < values.size()
+    }
+
+    @CompileStatic
+    private static long allocatedBytesReading(List<PropertyValue> values) {
+        def threadBean = (ThreadMXBean) ManagementFactory.threadMXBean
+        def threadId = Thread.currentThread().id
+        long before = threadBean.getThreadAllocatedBytes(threadId)
+        for (int i = 0; i < values.size(); i++) {
+            values.get(i).unprocessedValue
+        }
+        return threadBean.getThreadAllocatedBytes(threadId) - before
+    }
+
+    static class TaskWithInput extends DefaultTask {
+        @Input
+        String input = "value"
+    }
+
     @EqualsAndHashCode(includes = "value")
     static class Tree {
         @Input
@@ -234,6 +277,10 @@ class DefaultPropertyWalkerTest extends AbstractProjectBuilderSpec {
     }
 
     private visitProperties(TaskInternal task) {
+        createPropertyWalker().visitProperties(task, validationContext, visitor)
+    }
+
+    private PropertyWalker createPropertyWalker() {
         def cacheFactory = new TestCrossBuildInMemoryCacheFactory()
         def typeAnnotationMetadataStore = new DefaultTypeAnnotationMetadataStore(
             [],
@@ -246,6 +293,6 @@ class DefaultPropertyWalkerTest extends AbstractProjectBuilderSpec {
             cacheFactory
         )
         def typeMetadataStore = new DefaultTypeMetadataStore([], services.getAll(PropertyAnnotationHandler), [], typeAnnotationMetadataStore, cacheFactory)
-        new DefaultPropertyWalker(typeMetadataStore).visitProperties(task, validationContext, visitor)
+        return new DefaultPropertyWalker(typeMetadataStore)
     }
 }
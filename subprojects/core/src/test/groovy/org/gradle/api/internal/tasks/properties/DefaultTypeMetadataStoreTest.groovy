@@ -332,6 +332,15 @@ class DefaultTypeMetadataStoreTest extends Specification {
         properties.propertyName.sort() == ["destroys", "inputDirectory", "inputFile", "inputFiles", "inputString", "outputDirectories", "outputDirectory", "outputFile", "outputFiles", "someCache"]
     }
 
+    def "makes property getters accessible when creating the type metadata"() {
+        when:
+        def properties = metadataStore.getTypeMetadata(SimpleTask).propertiesMetadata
+
+        then:
+        !properties.empty
+        properties.every { it.getterMethod.accessible }
+    }
+
     static class TypeWithUnannotatedProperties extends DefaultTask {
         String bad1
         File bad2
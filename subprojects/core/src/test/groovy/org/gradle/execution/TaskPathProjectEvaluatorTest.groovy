@@ -19,12 +19,14 @@ package org.gradle.execution
 import org.gradle.api.BuildCancelledException
 import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.initialization.BuildCancellationToken
+import org.gradle.internal.operations.TestBuildOperationExecutor
 import spock.lang.Specification
 
 class TaskPathProjectEvaluatorTest extends Specification {
     private cancellationToken = Mock(BuildCancellationToken)
     private project = Mock(ProjectInternal)
-    private evaluator = new TaskPathProjectEvaluator(cancellationToken)
+    private buildOperationExecutor = new TestBuildOperationExecutor()
+    private evaluator = new TaskPathProjectEvaluator(cancellationToken, buildOperationExecutor, false)
 
     def "project configuration fails when cancelled"() {
         given:
@@ -60,4 +62,30 @@ class TaskPathProjectEvaluatorTest extends Specification {
         1 * child1.evaluate()
         0 * child2._
     }
+
+    def "configures project hierarchy level by level when configuring in parallel"() {
+        def parallelEvaluator = new TaskPathProjectEvaluator(cancellationToken, buildOperationExecutor, true)
+        def child1 = Mock(ProjectInternal)
+        def child2 = Mock(ProjectInternal)
+        def grandChild = Mock(ProjectInternal)
+
+        given:
+        project.childProjects >> [child1: child1, child2: child2]
+        child1.childProjects >> [grandChild: grandChild]
+        child2.childProjects >> [:]
+        grandChild.childProjects >> [:]
+
+        when:
+        parallelEvaluator.configureHierarchy(project)
+
+        then:
+        1 * project.evaluate()
+
+        then:
+        1 * child1.evaluate()
+        1 * child2.evaluate()
+
+        then:
+        1 * grandChild.evaluate()
+    }
 }
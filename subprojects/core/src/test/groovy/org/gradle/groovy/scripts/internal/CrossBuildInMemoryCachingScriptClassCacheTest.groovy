@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.groovy.scripts.internal
+
+import org.gradle.api.internal.initialization.loadercache.ClassLoaderId
+import org.gradle.cache.internal.TestCrossBuildInMemoryCacheFactory
+import org.gradle.groovy.scripts.ScriptSource
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.resource.TextResource
+import spock.lang.Specification
+
+class CrossBuildInMemoryCachingScriptClassCacheTest extends Specification {
+    def classLoader = new URLClassLoader(new URL[0])
+    def classLoaderId = Stub(ClassLoaderId)
+    def operation = Stub(CompileOperation) {
+        getId() >> "proj"
+    }
+    def delegate = Mock(ScriptClassCompiler)
+    def compiledScript = Stub(CompiledScript)
+
+    def "reuses compiled script for script with same class name and content"() {
+        def cache = new CrossBuildInMemoryCachingScriptClassCache(new TestCrossBuildInMemoryCacheFactory())
+        def source = scriptSource("build_a", 1)
+
+        when:
+        def first = compile(cache, source)
+        def second = compile(cache, source)
+
+        then:
+        1 * delegate.compile(source, classLoader, classLoaderId, operation, Script, _) >> compiledScript
+        first == compiledScript
+        second == compiledScript
+    }
+
+    def "compiles scripts with same content separately when sharing by content is disabled"() {
+        def cache = new CrossBuildInMemoryCachingScriptClassCache(new TestCrossBuildInMemoryCacheFactory())
+
+        when:
+        compile(cache, scriptSource("build_a", 1))
+        compile(cache, scriptSource("build_b", 1))
+
+        then:
+        2 * delegate.compile(_, classLoader, classLoaderId, operation, Script, _) >> compiledScript
+    }
+
+    def "shares compiled script between scripts with same content when sharing by content is enabled"() {
+        def cache = new CrossBuildInMemoryCachingScriptClassCache(new TestCrossBuildInMemoryCacheFactory(), true)
+        def otherCompiledScript = Stub(CompiledScript)
+
+        when:
+        def first = compile(cache, scriptSource("build_a", 1))
+        def second = compile(cache, scriptSource("build_b", 1))
+        def third = compile(cache, scriptSource("build_c", 2))
+
+        then:
+        2 * delegate.compile(_, classLoader, classLoaderId, operation, Script, _) >>> [compiledScript, otherCompiledScript]
+        first == compiledScript
+        second == compiledScript
+        third == otherCompiledScript
+    }
+
+    def "does not share compiled script between scripts compiled against different class loaders"() {
+        def cache = new CrossBuildInMemoryCachingScriptClassCache(new TestCrossBuildInMemoryCacheFactory(), true)
+        def otherClassLoader = new URLClassLoader(new URL[0])
+
+        when:
+        compile(cache, scriptSource("build_a", 1))
+        cache.getOrCompile(scriptSource("build_b", 1), otherClassLoader, classLoaderId, operation, Script, {}, delegate)
+
+        then:
+        1 * delegate.compile(_, classLoader, classLoaderId, operation, Script, _) >> compiledScript
+        1 * delegate.compile(_, otherClassLoader, classLoaderId, operation, Script, _) >> Stub(CompiledScript)
+    }
+
+    private CompiledScript compile(CrossBuildInMemoryCachingScriptClassCache cache, ScriptSource source) {
+        return cache.getOrCompile(source, classLoader, classLoaderId, operation, Script, {}, delegate)
+    }
+
+    private ScriptSource scriptSource(String className, int contentHash) {
+        def resource = Stub(TextResource) {
+            getContentHash() >> HashCode.fromInt(contentHash)
+        }
+        return Stub(ScriptSource) {
+            getClassName() >> className
+            getResource() >> resource
+        }
+    }
+}
@@ -19,6 +19,7 @@ package org.gradle.internal.fingerprint.classpath.impl
 import org.gradle.api.internal.cache.StringInterner
 import org.gradle.api.internal.changedetection.state.DefaultResourceSnapshotterCacheService
 import org.gradle.api.internal.changedetection.state.ResourceFilter
+import org.gradle.api.internal.changedetection.state.ZipHashingExecutor
 import org.gradle.api.internal.file.TestFiles
 import org.gradle.api.internal.file.collections.ImmutableFileCollection
 import org.gradle.internal.fingerprint.FileSystemLocationFingerprint
@@ -55,6 +56,7 @@ class DefaultClasspathFingerprinterTest extends Specification {
         cacheService,
         fileSystemSnapshotter,
         ResourceFilter.FILTER_NOTHING,
+        ZipHashingExecutor.sequential(),
         stringInterner)
 
     def "directories and missing files are ignored"() {
@@ -18,6 +18,7 @@ package org.gradle.internal.resource.local
 
 import org.gradle.api.internal.file.DefaultTemporaryFileProvider
 import org.gradle.api.internal.file.TemporaryFileProvider
+import org.gradle.internal.hash.HashUtil
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
@@ -63,6 +64,21 @@ class GroupedAndNamedUniqueFileStoreTest extends Specification {
         1 * fileAccessTimeJournal.setLastAccessTime(baseDir.file('group'), _)
     }
 
+    def "uses provided checksum when moving files into the store"() {
+        given:
+        def file = tmpDir.createFile("1.txt")
+        file.text = 'Hello, World!'
+        def sha1 = HashUtil.sha1(file)
+
+        when:
+        def resource = fileStore.move('1', file, sha1)
+
+        then:
+        resource.file == baseDir.file("group/${sha1.asHexString()}/1")
+        resource.file.text == 'Hello, World!'
+        !file.exists()
+    }
+
     def "allows to mark files accessed externally"() {
         when:
         fileStore.getFileAccessTracker().markAccessed(baseDir.file('group/1.txt'))
@@ -50,6 +50,8 @@ import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.InMemo
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.InMemoryModuleArtifactsCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.DefaultModuleVersionsCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.InMemoryModuleVersionsCache;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.presence.DefaultModulePresenceCache;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.presence.InMemoryModulePresenceCache;
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.LocalComponentMetadataBuilder;
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.dependencies.DependencyDescriptorFactory;
 import org.gradle.api.internal.artifacts.ivyservice.projectmodule.DefaultLocalComponentRegistry;
@@ -213,13 +215,18 @@ class DependencyManagementBuildScopeServices {
                 timeProvider,
                 artifactCacheLockingManager,
                 artifactIdentifierFileStore.getFileAccessTracker()
-            ))
+            )),
+            new DefaultModulePresenceCache(
+                timeProvider,
+                artifactCacheLockingManager,
+                moduleIdentifierFactory)
         );
         ModuleRepositoryCaches inMemoryCaches = new ModuleRepositoryCaches(
             new InMemoryModuleVersionsCache(timeProvider),
             new InMemoryModuleMetadataCache(timeProvider),
             new InMemoryModuleArtifactsCache(timeProvider),
-            new InMemoryModuleArtifactCache(timeProvider)
+            new InMemoryModuleArtifactCache(timeProvider),
+            new InMemoryModulePresenceCache(timeProvider)
         );
         return new ModuleRepositoryCacheProvider(caches, inMemoryCaches);
     }
@@ -33,6 +33,7 @@ import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.Cached
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactsCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ModuleVersionsCache;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.presence.ModulePresenceCache;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.ResolvableArtifact;
 import org.gradle.api.internal.artifacts.repositories.resolver.MetadataFetchingCost;
 import org.gradle.api.internal.component.ArtifactType;
@@ -57,8 +58,10 @@ import org.gradle.util.BuildCommencedTimeProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -71,33 +74,47 @@ import java.util.stream.Collectors;
  *
  * The `ResolveAndCacheRepositoryAccess` provided by {@link #getRemoteAccess()} will first delegate any resolution request,
  * and then store the result in the dependency resolution cache.
+ *
+ * When the module presence index is enabled, modules that this repository has never provided and that were recently
+ * found to be missing are answered from the {@link ModulePresenceCache}, so that the repository is not probed again for other versions.
  */
 public class CachingModuleComponentRepository implements ModuleComponentRepository {
     private static final Logger LOGGER = LoggerFactory.getLogger(CachingModuleComponentRepository.class);
+    private static final String MODULE_PRESENCE_INDEX_PROPERTY = "org.gradle.internal.repository.presence.index";
 
     private final ModuleVersionsCache moduleVersionsCache;
     private final ModuleMetadataCache moduleMetadataCache;
     private final ModuleArtifactsCache moduleArtifactsCache;
     private final ModuleArtifactCache moduleArtifactCache;
+    private final ModulePresenceCache modulePresenceCache;
 
     private final ModuleComponentRepository delegate;
     private final CachePolicy cachePolicy;
     private final BuildCommencedTimeProvider timeProvider;
     private final ComponentMetadataProcessor metadataProcessor;
+    private final boolean useModulePresenceIndex;
     private LocateInCacheRepositoryAccess locateInCacheRepositoryAccess = new LocateInCacheRepositoryAccess();
     private ResolveAndCacheRepositoryAccess resolveAndCacheRepositoryAccess = new ResolveAndCacheRepositoryAccess();
 
     public CachingModuleComponentRepository(ModuleComponentRepository delegate, ModuleRepositoryCaches caches,
                                             CachePolicy cachePolicy, BuildCommencedTimeProvider timeProvider,
                                             ComponentMetadataProcessor metadataProcessor) {
+        this(delegate, caches, cachePolicy, timeProvider, metadataProcessor, Boolean.getBoolean(MODULE_PRESENCE_INDEX_PROPERTY));
+    }
+
+    CachingModuleComponentRepository(ModuleComponentRepository delegate, ModuleRepositoryCaches caches,
+                                     CachePolicy cachePolicy, BuildCommencedTimeProvider timeProvider,
+                                     ComponentMetadataProcessor metadataProcessor, boolean useModulePresenceIndex) {
         this.delegate = delegate;
         this.moduleMetadataCache = caches.moduleMetadataCache;
         this.moduleVersionsCache = caches.moduleVersionsCache;
         this.moduleArtifactsCache = caches.moduleArtifactsCache;
         this.moduleArtifactCache = caches.moduleArtifactCache;
+        this.modulePresenceCache = caches.modulePresenceCache;
         this.cachePolicy = cachePolicy;
         this.timeProvider = timeProvider;
         this.metadataProcessor = metadataProcessor;
+        this.useModulePresenceIndex = useModulePresenceIndex;
     }
 
     @Override
@@ -173,6 +190,14 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
                     // When age == 0, verified since the start of this build, assume listing hasn't changed
                     result.setAuthoritative(cachedModuleVersionList.getAgeMillis() == 0);
                 }
+            } else {
+                ModulePresenceCache.CachedMissingModule cachedMissingModule = getCachedMissingModule(moduleId);
+                // A missing version does not prove that the repository lists no versions of the module
+                if (cachedMissingModule != null && cachedMissingModule.isVersionListingEmpty() && !cachePolicy.mustRefreshVersionList(moduleId, Collections.<ModuleVersionIdentifier>emptySet(), cachedMissingModule.getAgeMillis())) {
+                    LOGGER.debug("Detected non-existence of module '{}' in module presence index for '{}'", moduleId, delegate.getName());
+                    result.listed(Collections.<String>emptySet());
+                    result.setAuthoritative(true);
+                }
             }
         }
 
@@ -190,6 +215,12 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
         private void resolveComponentMetaDataFromCache(ModuleComponentIdentifier moduleComponentIdentifier, ComponentOverrideMetadata requestMetaData, BuildableModuleComponentMetaDataResolveResult result) {
             ModuleMetadataCache.CachedMetadata cachedMetadata = moduleMetadataCache.getCachedModuleDescriptor(delegate, moduleComponentIdentifier);
             if (cachedMetadata == null) {
+                ModulePresenceCache.CachedMissingModule cachedMissingModule = getCachedMissingModule(moduleComponentIdentifier.getModuleIdentifier());
+                if (cachedMissingModule != null && !cachePolicy.mustRefreshMissingModule(moduleComponentIdentifier, cachedMissingModule.getAgeMillis())) {
+                    LOGGER.debug("Detected non-existence of module '{}' in module presence index for '{}'", moduleComponentIdentifier, delegate.getName());
+                    result.missing();
+                    result.setAuthoritative(true);
+                }
                 return;
             }
             if (cachedMetadata.isMissing()) {
@@ -224,6 +255,14 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
             result.setAuthoritative(cachedMetadata.getAgeMillis() == 0);
         }
 
+        @Nullable
+        private ModulePresenceCache.CachedMissingModule getCachedMissingModule(ModuleIdentifier moduleId) {
+            if (!useModulePresenceIndex) {
+                return null;
+            }
+            return modulePresenceCache.getCachedMissingModule(delegate, moduleId);
+        }
+
         private ModuleComponentResolveMetadata getProcessedMetadata(int key, ModuleMetadataCache.CachedMetadata cachedMetadata) {
             ModuleComponentResolveMetadata metadata = cachedMetadata.getProcessedMetadata(key);
             if (metadata == null) {
@@ -296,6 +335,10 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
         public MetadataFetchingCost estimateMetadataFetchingCost(ModuleComponentIdentifier moduleComponentIdentifier) {
             ModuleMetadataCache.CachedMetadata cachedMetadata = moduleMetadataCache.getCachedModuleDescriptor(delegate, moduleComponentIdentifier);
             if (cachedMetadata == null) {
+                ModulePresenceCache.CachedMissingModule cachedMissingModule = getCachedMissingModule(moduleComponentIdentifier.getModuleIdentifier());
+                if (cachedMissingModule != null && !cachePolicy.mustRefreshMissingModule(moduleComponentIdentifier, cachedMissingModule.getAgeMillis())) {
+                    return MetadataFetchingCost.CHEAP;
+                }
                 return estimateCostViaRemoteAccess(moduleComponentIdentifier);
             }
             if (cachedMetadata.isMissing()) {
@@ -361,6 +404,13 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
                     ModuleIdentifier moduleId = getCacheKey(dependency.getSelector());
                     Set<String> versionList = result.getVersions();
                     moduleVersionsCache.cacheModuleVersionList(delegate, moduleId, versionList);
+                    if (useModulePresenceIndex) {
+                        if (versionList.isEmpty()) {
+                            modulePresenceCache.cacheModuleMissing(delegate, moduleId);
+                        } else {
+                            modulePresenceCache.cacheModulePresent(delegate, moduleId);
+                        }
+                    }
                     break;
                 case Failed:
                     break;
@@ -376,11 +426,17 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
             switch (result.getState()) {
                 case Missing:
                     moduleMetadataCache.cacheMissing(delegate, moduleComponentIdentifier);
+                    if (useModulePresenceIndex) {
+                        modulePresenceCache.cacheModuleVersionMissing(delegate, moduleComponentIdentifier.getModuleIdentifier());
+                    }
                     break;
                 case Resolved:
                     ModuleComponentResolveMetadata resolvedMetadata = result.getMetaData();
                     ModuleSource moduleSource = resolvedMetadata.getSource();
                     ModuleMetadataCache.CachedMetadata cachedMetadata = moduleMetadataCache.cacheMetaData(delegate, moduleComponentIdentifier, resolvedMetadata);
+                    if (useModulePresenceIndex) {
+                        modulePresenceCache.cacheModulePresent(delegate, moduleComponentIdentifier.getModuleIdentifier());
+                    }
                     ModuleComponentResolveMetadata processedMetadata = metadataProcessor.processMetadata(resolvedMetadata);
                     cachedMetadata.putProcessedMetadata(metadataProcessor.getRulesHash(), processedMetadata);
                     moduleSource = new CachingModuleSource(processedMetadata.getOriginalContentHash().asBigInteger(), requestMetaData.isChanging() || processedMetadata.isChanging(), moduleSource);
@@ -15,7 +15,10 @@
  */
 package org.gradle.api.internal.artifacts.ivyservice.modulecache;
 
-public class ModuleRepositoryCacheProvider {
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.Stoppable;
+
+public class ModuleRepositoryCacheProvider implements Stoppable {
     private final ModuleRepositoryCaches caches;
     private final ModuleRepositoryCaches inMemoryCaches;
     private final ResolvedArtifactCaches resolvedArtifactCaches = new ResolvedArtifactCaches();
@@ -43,4 +46,12 @@ public class ModuleRepositoryCacheProvider {
     public ResolvedArtifactCaches getResolvedArtifactCaches() {
         return resolvedArtifactCaches;
     }
+
+    /**
+     * Stores the module presence index, which is only kept in memory while the build runs.
+     */
+    @Override
+    public void stop() {
+        CompositeStoppable.stoppable(caches.modulePresenceCache, inMemoryCaches.modulePresenceCache).stop();
+    }
 }
@@ -18,17 +18,20 @@ package org.gradle.api.internal.artifacts.ivyservice.modulecache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactsCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ModuleVersionsCache;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.presence.ModulePresenceCache;
 
 public class ModuleRepositoryCaches {
     public final ModuleVersionsCache moduleVersionsCache;
     public final ModuleMetadataCache moduleMetadataCache;
     public final ModuleArtifactsCache moduleArtifactsCache;
     public final ModuleArtifactCache moduleArtifactCache;
+    public final ModulePresenceCache modulePresenceCache;
 
-    public ModuleRepositoryCaches(ModuleVersionsCache moduleVersionsCache, ModuleMetadataCache moduleMetadataCache, ModuleArtifactsCache moduleArtifactsCache, ModuleArtifactCache moduleArtifactCache) {
+    public ModuleRepositoryCaches(ModuleVersionsCache moduleVersionsCache, ModuleMetadataCache moduleMetadataCache, ModuleArtifactsCache moduleArtifactsCache, ModuleArtifactCache moduleArtifactCache, ModulePresenceCache modulePresenceCache) {
         this.moduleVersionsCache = moduleVersionsCache;
         this.moduleMetadataCache = moduleMetadataCache;
         this.moduleArtifactsCache = moduleArtifactsCache;
         this.moduleArtifactCache = moduleArtifactCache;
+        this.modulePresenceCache = modulePresenceCache;
     }
 }
@@ -47,7 +47,7 @@ public class DefaultModuleVersionsCache extends AbstractModuleVersionsCache {
     }
 
     private PersistentIndexedCache<ModuleAtRepositoryKey, ModuleVersionsCacheEntry> initCache() {
-        return artifactCacheLockingManager.createCache("module-versions", new ModuleKeySerializer(moduleIdentifierFactory), new ModuleVersionsCacheEntrySerializer());
+        return artifactCacheLockingManager.createCache("module-versions", new ModuleAtRepositoryKeySerializer(moduleIdentifierFactory), new ModuleVersionsCacheEntrySerializer());
     }
 
     @Override
@@ -60,29 +60,6 @@ public class DefaultModuleVersionsCache extends AbstractModuleVersionsCache {
         return getCache().get(key);
     }
 
-    private static class ModuleKeySerializer extends AbstractSerializer<ModuleAtRepositoryKey> {
-        private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
-
-        private ModuleKeySerializer(ImmutableModuleIdentifierFactory moduleIdentifierFactory) {
-            this.moduleIdentifierFactory = moduleIdentifierFactory;
-        }
-
-        @Override
-        public void write(Encoder encoder, ModuleAtRepositoryKey value) throws Exception {
-            encoder.writeString(value.repositoryId);
-            encoder.writeString(value.moduleId.getGroup());
-            encoder.writeString(value.moduleId.getName());
-        }
-
-        @Override
-        public ModuleAtRepositoryKey read(Decoder decoder) throws Exception {
-            String resolverId = decoder.readString();
-            String group = decoder.readString();
-            String module = decoder.readString();
-            return new ModuleAtRepositoryKey(resolverId, moduleIdentifierFactory.module(group, module));
-        }
-    }
-
     private static class ModuleVersionsCacheEntrySerializer extends AbstractSerializer<ModuleVersionsCacheEntry> {
 
         @Override
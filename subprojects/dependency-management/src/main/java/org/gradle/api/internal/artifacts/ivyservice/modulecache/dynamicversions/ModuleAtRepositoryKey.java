@@ -17,11 +17,11 @@ package org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions
 
 import org.gradle.api.artifacts.ModuleIdentifier;
 
-class ModuleAtRepositoryKey {
+public class ModuleAtRepositoryKey {
     final String repositoryId;
     final ModuleIdentifier moduleId;
 
-    ModuleAtRepositoryKey(String repositoryId, ModuleIdentifier moduleId) {
+    public ModuleAtRepositoryKey(String repositoryId, ModuleIdentifier moduleId) {
         this.repositoryId = repositoryId;
         this.moduleId = moduleId;
     }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions;
+
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
+import org.gradle.internal.serialize.AbstractSerializer;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+
+public class ModuleAtRepositoryKeySerializer extends AbstractSerializer<ModuleAtRepositoryKey> {
+    private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
+
+    public ModuleAtRepositoryKeySerializer(ImmutableModuleIdentifierFactory moduleIdentifierFactory) {
+        this.moduleIdentifierFactory = moduleIdentifierFactory;
+    }
+
+    @Override
+    public void write(Encoder encoder, ModuleAtRepositoryKey value) throws Exception {
+        encoder.writeString(value.repositoryId);
+        encoder.writeString(value.moduleId.getGroup());
+        encoder.writeString(value.moduleId.getName());
+    }
+
+    @Override
+    public ModuleAtRepositoryKey read(Decoder decoder) throws Exception {
+        String resolverId = decoder.readString();
+        String group = decoder.readString();
+        String module = decoder.readString();
+        return new ModuleAtRepositoryKey(resolverId, moduleIdentifierFactory.module(group, module));
+    }
+}
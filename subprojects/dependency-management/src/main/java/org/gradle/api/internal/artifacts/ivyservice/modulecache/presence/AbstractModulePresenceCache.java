@@ -0,0 +1,202 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.presence;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.Funnels;
+import org.gradle.api.artifacts.ModuleIdentifier;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleComponentRepository;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ModuleAtRepositoryKey;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.util.BuildCommencedTimeProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the presence filters in memory while modules are recorded, and merges the filters that changed into the stored ones when the cache is stopped.
+ */
+public abstract class AbstractModulePresenceCache implements ModulePresenceCache, Stoppable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractModulePresenceCache.class);
+
+    static final Funnel<CharSequence> MODULE_FUNNEL = Funnels.unencodedCharsFunnel();
+    private static final int EXPECTED_MODULES_PER_REPOSITORY = 100000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    protected final BuildCommencedTimeProvider timeProvider;
+
+    // Guarded by this
+    private final Map<String, BloomFilter<CharSequence>> presentModulesByRepository = Maps.newHashMap();
+    private final Set<String> modifiedRepositories = Sets.newHashSet();
+
+    public AbstractModulePresenceCache(BuildCommencedTimeProvider timeProvider) {
+        this.timeProvider = timeProvider;
+    }
+
+    @Override
+    public void cacheModulePresent(ModuleComponentRepository repository, ModuleIdentifier moduleId) {
+        String repositoryId = repository.getId();
+        boolean recorded;
+        synchronized (this) {
+            BloomFilter<CharSequence> presentModules = loadPresentModules(repositoryId);
+            if (presentModules == null) {
+                presentModules = BloomFilter.create(MODULE_FUNNEL, EXPECTED_MODULES_PER_REPOSITORY, FALSE_POSITIVE_PROBABILITY);
+                presentModulesByRepository.put(repositoryId, presentModules);
+            }
+            recorded = presentModules.put(filterKey(moduleId));
+            if (recorded) {
+                modifiedRepositories.add(repositoryId);
+            }
+        }
+        if (recorded) {
+            LOGGER.debug("Recording presence of module '{}' in repository '{}'", moduleId, repository.getName());
+            // The module may have been published since its absence was recorded
+            removeMissingModule(new ModuleAtRepositoryKey(repositoryId, moduleId));
+        }
+    }
+
+    @Override
+    public void cacheModuleMissing(ModuleComponentRepository repository, ModuleIdentifier moduleId) {
+        if (mightBePresent(repository.getId(), moduleId)) {
+            return;
+        }
+        LOGGER.debug("Recording absence of module '{}' in repository '{}'", moduleId, repository.getName());
+        storeMissingModule(new ModuleAtRepositoryKey(repository.getId(), moduleId), new MissingModule(timeProvider.getCurrentTime(), true));
+    }
+
+    @Override
+    public void cacheModuleVersionMissing(ModuleComponentRepository repository, ModuleIdentifier moduleId) {
+        if (mightBePresent(repository.getId(), moduleId)) {
+            return;
+        }
+        ModuleAtRepositoryKey key = new ModuleAtRepositoryKey(repository.getId(), moduleId);
+        MissingModule missingModule = getMissingModule(key);
+        if (missingModule != null && missingModule.isVersionListingEmpty()) {
+            // Keep the stronger evidence of an empty version listing
+            return;
+        }
+        LOGGER.debug("Recording absence of module '{}' in repository '{}' after a missing version", moduleId, repository.getName());
+        storeMissingModule(key, new MissingModule(timeProvider.getCurrentTime(), false));
+    }
+
+    @Override
+    public CachedMissingModule getCachedMissingModule(ModuleComponentRepository repository, ModuleIdentifier moduleId) {
+        if (mightBePresent(repository.getId(), moduleId)) {
+            return null;
+        }
+        MissingModule missingModule = getMissingModule(new ModuleAtRepositoryKey(repository.getId(), moduleId));
+        return missingModule == null ? null : new DefaultCachedMissingModule(timeProvider.getCurrentTime() - missingModule.getTimestamp(), missingModule.isVersionListingEmpty());
+    }
+
+    private synchronized boolean mightBePresent(String repositoryId, ModuleIdentifier moduleId) {
+        BloomFilter<CharSequence> presentModules = loadPresentModules(repositoryId);
+        return presentModules != null && presentModules.mightContain(filterKey(moduleId));
+    }
+
+    private BloomFilter<CharSequence> loadPresentModules(String repositoryId) {
+        BloomFilter<CharSequence> presentModules = presentModulesByRepository.get(repositoryId);
+        if (presentModules == null) {
+            presentModules = getPresentModules(repositoryId);
+            if (presentModules != null) {
+                presentModulesByRepository.put(repositoryId, presentModules);
+            }
+        }
+        return presentModules;
+    }
+
+    @Override
+    public synchronized void stop() {
+        for (String repositoryId : modifiedRepositories) {
+            mergePresentModules(repositoryId, presentModulesByRepository.get(repositoryId));
+        }
+        modifiedRepositories.clear();
+    }
+
+    private static String filterKey(ModuleIdentifier moduleId) {
+        return moduleId.getGroup() + ":" + moduleId.getName();
+    }
+
+    /**
+     * Returns the union of the stored filter and the filter recorded by this cache. The recorded filter wins when the stored one cannot be merged.
+     */
+    static BloomFilter<CharSequence> union(@Nullable BloomFilter<CharSequence> storedModules, BloomFilter<CharSequence> presentModules) {
+        if (storedModules == null || !storedModules.isCompatible(presentModules)) {
+            return presentModules;
+        }
+        BloomFilter<CharSequence> merged = storedModules.copy();
+        merged.putAll(presentModules);
+        return merged;
+    }
+
+    /**
+     * Merges the given filter into the stored filter for the repository, so that presence recorded by other builds since it was loaded is kept.
+     */
+    protected abstract void mergePresentModules(String repositoryId, BloomFilter<CharSequence> presentModules);
+
+    @Nullable
+    protected abstract BloomFilter<CharSequence> getPresentModules(String repositoryId);
+
+    protected abstract void storeMissingModule(ModuleAtRepositoryKey key, MissingModule missingModule);
+
+    @Nullable
+    protected abstract MissingModule getMissingModule(ModuleAtRepositoryKey key);
+
+    protected abstract void removeMissingModule(ModuleAtRepositoryKey key);
+
+    protected static class MissingModule {
+        private final long timestamp;
+        private final boolean versionListingEmpty;
+
+        MissingModule(long timestamp, boolean versionListingEmpty) {
+            this.timestamp = timestamp;
+            this.versionListingEmpty = versionListingEmpty;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public boolean isVersionListingEmpty() {
+            return versionListingEmpty;
+        }
+    }
+
+    private static class DefaultCachedMissingModule implements CachedMissingModule {
+        private final long ageMillis;
+        private final boolean versionListingEmpty;
+
+        DefaultCachedMissingModule(long ageMillis, boolean versionListingEmpty) {
+            this.ageMillis = ageMillis;
+            this.versionListingEmpty = versionListingEmpty;
+        }
+
+        @Override
+        public long getAgeMillis() {
+            return ageMillis;
+        }
+
+        @Override
+        public boolean isVersionListingEmpty() {
+            return versionListingEmpty;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.presence;
+
+import com.google.common.hash.BloomFilter;
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.ivyservice.ArtifactCacheLockingManager;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ModuleAtRepositoryKey;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ModuleAtRepositoryKeySerializer;
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.serialize.AbstractSerializer;
+import org.gradle.internal.serialize.BaseSerializerFactory;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.util.BuildCommencedTimeProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Persists the module presence index alongside the other module metadata caches.
+ */
+public class DefaultModulePresenceCache extends AbstractModulePresenceCache {
+
+    private final ArtifactCacheLockingManager artifactCacheLockingManager;
+    private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
+
+    private PersistentIndexedCache<String, BloomFilter<CharSequence>> presentModulesCache;
+    private PersistentIndexedCache<ModuleAtRepositoryKey, MissingModule> missingModulesCache;
+
+    public DefaultModulePresenceCache(BuildCommencedTimeProvider timeProvider, ArtifactCacheLockingManager artifactCacheLockingManager, ImmutableModuleIdentifierFactory moduleIdentifierFactory) {
+        super(timeProvider);
+        this.artifactCacheLockingManager = artifactCacheLockingManager;
+        this.moduleIdentifierFactory = moduleIdentifierFactory;
+    }
+
+    private synchronized PersistentIndexedCache<String, BloomFilter<CharSequence>> getPresentModulesCache() {
+        if (presentModulesCache == null) {
+            presentModulesCache = artifactCacheLockingManager.createCache("module-presence", BaseSerializerFactory.STRING_SERIALIZER, new BloomFilterSerializer());
+        }
+        return presentModulesCache;
+    }
+
+    private synchronized PersistentIndexedCache<ModuleAtRepositoryKey, MissingModule> getMissingModulesCache() {
+        if (missingModulesCache == null) {
+            missingModulesCache = artifactCacheLockingManager.createCache("module-absence", new ModuleAtRepositoryKeySerializer(moduleIdentifierFactory), new MissingModuleSerializer());
+        }
+        return missingModulesCache;
+    }
+
+    @Override
+    protected void mergePresentModules(final String repositoryId, final BloomFilter<CharSequence> presentModules) {
+        // Other builds may have stored modules since the filter was loaded, so merge under the cache lock rather than overwrite
+        artifactCacheLockingManager.useCache(new Runnable() {
+            @Override
+            public void run() {
+                PersistentIndexedCache<String, BloomFilter<CharSequence>> cache = getPresentModulesCache();
+                cache.put(repositoryId, union(cache.get(repositoryId), presentModules));
+            }
+        });
+    }
+
+    @Override
+    protected BloomFilter<CharSequence> getPresentModules(String repositoryId) {
+        return getPresentModulesCache().get(repositoryId);
+    }
+
+    @Override
+    protected void storeMissingModule(ModuleAtRepositoryKey key, MissingModule missingModule) {
+        getMissingModulesCache().put(key, missingModule);
+    }
+
+    @Override
+    protected MissingModule getMissingModule(ModuleAtRepositoryKey key) {
+        return getMissingModulesCache().get(key);
+    }
+
+    @Override
+    protected void removeMissingModule(ModuleAtRepositoryKey key) {
+        getMissingModulesCache().remove(key);
+    }
+
+    private static class BloomFilterSerializer extends AbstractSerializer<BloomFilter<CharSequence>> {
+        @Override
+        public void write(Encoder encoder, BloomFilter<CharSequence> value) throws Exception {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            value.writeTo(outputStream);
+            encoder.writeBinary(outputStream.toByteArray());
+        }
+
+        @Override
+        public BloomFilter<CharSequence> read(Decoder decoder) throws Exception {
+            return BloomFilter.readFrom(new ByteArrayInputStream(decoder.readBinary()), MODULE_FUNNEL);
+        }
+    }
+
+    private static class MissingModuleSerializer extends AbstractSerializer<MissingModule> {
+        @Override
+        public void write(Encoder encoder, MissingModule value) throws Exception {
+            encoder.writeLong(value.getTimestamp());
+            encoder.writeBoolean(value.isVersionListingEmpty());
+        }
+
+        @Override
+        public MissingModule read(Decoder decoder) throws Exception {
+            return new MissingModule(decoder.readLong(), decoder.readBoolean());
+        }
+    }
+}
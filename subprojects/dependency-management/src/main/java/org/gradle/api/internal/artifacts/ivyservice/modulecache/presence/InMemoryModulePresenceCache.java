@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.presence;
+
+import com.google.common.collect.Maps;
+import com.google.common.hash.BloomFilter;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ModuleAtRepositoryKey;
+import org.gradle.util.BuildCommencedTimeProvider;
+
+import java.util.Map;
+
+public class InMemoryModulePresenceCache extends AbstractModulePresenceCache {
+    private final Map<String, BloomFilter<CharSequence>> inMemoryPresentModules = Maps.newConcurrentMap();
+    private final Map<ModuleAtRepositoryKey, MissingModule> inMemoryMissingModules = Maps.newConcurrentMap();
+
+    public InMemoryModulePresenceCache(BuildCommencedTimeProvider timeProvider) {
+        super(timeProvider);
+    }
+
+    @Override
+    protected void mergePresentModules(String repositoryId, BloomFilter<CharSequence> presentModules) {
+        inMemoryPresentModules.put(repositoryId, union(inMemoryPresentModules.get(repositoryId), presentModules));
+    }
+
+    @Override
+    protected BloomFilter<CharSequence> getPresentModules(String repositoryId) {
+        return inMemoryPresentModules.get(repositoryId);
+    }
+
+    @Override
+    protected void storeMissingModule(ModuleAtRepositoryKey key, MissingModule missingModule) {
+        inMemoryMissingModules.put(key, missingModule);
+    }
+
+    @Override
+    protected MissingModule getMissingModule(ModuleAtRepositoryKey key) {
+        return inMemoryMissingModules.get(key);
+    }
+
+    @Override
+    protected void removeMissingModule(ModuleAtRepositoryKey key) {
+        inMemoryMissingModules.remove(key);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.presence;
+
+import org.gradle.api.artifacts.ModuleIdentifier;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleComponentRepository;
+
+import javax.annotation.Nullable;
+
+/**
+ * An index of which modules a repository is known to host, or known not to host.
+ *
+ * Presence is tracked with a bloom filter per repository, so a negative answer is definite while a positive answer may be wrong.
+ * Absence is tracked explicitly per module, and is only recorded for modules that the repository has never provided.
+ * An absence is recorded either from an empty version listing, or from a missing static version; only the former can answer a version listing.
+ */
+public interface ModulePresenceCache {
+
+    /**
+     * Records that the repository provided some version of the given module.
+     */
+    void cacheModulePresent(ModuleComponentRepository repository, ModuleIdentifier moduleId);
+
+    /**
+     * Records that the repository did not provide the given module. Ignored when the repository may have provided the module before.
+     */
+    void cacheModuleMissing(ModuleComponentRepository repository, ModuleIdentifier moduleId);
+
+    /**
+     * Records that the repository did not provide a requested version of the given module. Ignored when the repository may have provided the module before.
+     */
+    void cacheModuleVersionMissing(ModuleComponentRepository repository, ModuleIdentifier moduleId);
+
+    /**
+     * Returns the cached absence of the given module, or null when the repository may host the module.
+     */
+    @Nullable
+    CachedMissingModule getCachedMissingModule(ModuleComponentRepository repository, ModuleIdentifier moduleId);
+
+    interface CachedMissingModule {
+        long getAgeMillis();
+
+        /**
+         * Whether the absence was recorded from an empty version listing, rather than from a missing version.
+         */
+        boolean isVersionListingEmpty();
+    }
+}
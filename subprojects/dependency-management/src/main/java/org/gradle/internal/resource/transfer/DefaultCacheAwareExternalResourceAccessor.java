@@ -27,6 +27,8 @@ import org.gradle.cache.internal.ProducerGuard;
 import org.gradle.internal.Factory;
 import org.gradle.internal.hash.HashUtil;
 import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.hash.HashingOutputStream;
 import org.gradle.internal.resource.ExternalResource;
 import org.gradle.internal.resource.ExternalResourceName;
 import org.gradle.internal.resource.ExternalResourceReadResult;
@@ -187,7 +189,7 @@ public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExte
             if (!localChecksum.equals(remoteChecksum)) {
                 return null;
             }
-            return moveIntoCache(source, destination, fileStore, remoteMetaData);
+            return moveIntoCache(source, destination, localChecksum, fileStore, remoteMetaData);
         } finally {
             destination.delete();
         }
@@ -207,17 +209,17 @@ public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExte
 
         // Move into cache
         try {
-            return moveIntoCache(source, downloadAction.destination, fileStore, downloadAction.metaData);
+            return moveIntoCache(source, downloadAction.destination, downloadAction.sha1, fileStore, downloadAction.metaData);
         } finally {
             downloadAction.destination.delete();
         }
     }
 
-    private LocallyAvailableExternalResource moveIntoCache(final ExternalResourceName source, final File destination, final ResourceFileStore fileStore, final ExternalResourceMetaData metaData) {
+    private LocallyAvailableExternalResource moveIntoCache(final ExternalResourceName source, final File destination, final HashValue sha1, final ResourceFileStore fileStore, final ExternalResourceMetaData metaData) {
         return artifactCacheLockingManager.useCache(new Factory<LocallyAvailableExternalResource>() {
             @Override
             public LocallyAvailableExternalResource create() {
-                LocallyAvailableResource cachedResource = fileStore.moveIntoCache(destination);
+                LocallyAvailableResource cachedResource = fileStore.moveIntoCache(destination, sha1);
                 File fileInFileStore = cachedResource.getFile();
                 cachedExternalResourceIndex.store(source.toString(), fileInFileStore, metaData);
                 return fileResourceRepository.resource(fileInFileStore, source.getUri(), metaData);
@@ -232,6 +234,7 @@ public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExte
     private class DownloadAction implements ExternalResource.ContentAction<Object> {
         private final ExternalResourceName source;
         File destination;
+        HashValue sha1;
         ExternalResourceMetaData metaData;
 
         DownloadAction(ExternalResourceName source) {
@@ -246,12 +249,14 @@ public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExte
             if (destination.getParentFile() != null) {
                 GFileUtils.mkdirs(destination.getParentFile());
             }
-            FileOutputStream outputStream = new FileOutputStream(destination);
+            // Hash the content while it is written, so that the file store does not need to read it again
+            HashingOutputStream outputStream = new HashingOutputStream(Hashing.sha1(), new FileOutputStream(destination));
             try {
                 IOUtils.copyLarge(inputStream, outputStream);
             } finally {
                 outputStream.close();
             }
+            sha1 = new HashValue(outputStream.hash().toByteArray());
             return null;
         }
     }
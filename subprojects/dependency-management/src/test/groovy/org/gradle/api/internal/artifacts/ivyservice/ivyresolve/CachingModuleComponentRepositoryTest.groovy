@@ -17,7 +17,9 @@
 package org.gradle.api.internal.artifacts.ivyservice.ivyresolve
 
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier
+import org.gradle.api.artifacts.component.ModuleComponentSelector
 import org.gradle.api.internal.artifacts.ComponentMetadataProcessor
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
 import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory
 import org.gradle.api.internal.artifacts.configurations.dynamicversion.CachePolicy
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.ModuleMetadataCache
@@ -26,8 +28,10 @@ import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.Artifa
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactCache
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactsCache
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ModuleVersionsCache
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.presence.ModulePresenceCache
 import org.gradle.api.internal.artifacts.repositories.resolver.MetadataFetchingCost
 import org.gradle.api.internal.component.ArtifactType
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
 import org.gradle.internal.component.external.model.ModuleComponentArtifactIdentifier
 import org.gradle.internal.component.external.model.ModuleComponentArtifactMetadata
 import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata
@@ -38,6 +42,7 @@ import org.gradle.internal.component.model.ComponentOverrideMetadata
 import org.gradle.internal.component.model.ComponentResolveMetadata
 import org.gradle.internal.component.model.ModuleSource
 import org.gradle.internal.resolve.result.BuildableArtifactResolveResult
+import org.gradle.internal.resolve.result.BuildableModuleComponentMetaDataResolveResult
 import org.gradle.internal.resolve.result.DefaultBuildableArtifactSetResolveResult
 import org.gradle.internal.resolve.result.DefaultBuildableComponentArtifactsResolveResult
 import org.gradle.internal.resolve.result.DefaultBuildableModuleComponentMetaDataResolveResult
@@ -58,10 +63,11 @@ class CachingModuleComponentRepositoryTest extends Specification {
     def moduleDescriptorCache = Mock(ModuleMetadataCache)
     def moduleArtifactsCache = Mock(ModuleArtifactsCache)
     def artifactAtRepositoryCache = Mock(ModuleArtifactCache)
+    def modulePresenceCache = Mock(ModulePresenceCache)
     def cachePolicy = Stub(CachePolicy)
     def metadataProcessor = Stub(ComponentMetadataProcessor)
     def moduleIdentifierFactory = Mock(ImmutableModuleIdentifierFactory)
-    def caches = new ModuleRepositoryCaches(moduleResolutionCache, moduleDescriptorCache, moduleArtifactsCache, artifactAtRepositoryCache)
+    def caches = new ModuleRepositoryCaches(moduleResolutionCache, moduleDescriptorCache, moduleArtifactsCache, artifactAtRepositoryCache, modulePresenceCache)
     def repo = new CachingModuleComponentRepository(realRepo, caches,
         cachePolicy, new BuildCommencedTimeProvider(), metadataProcessor)
 
@@ -258,4 +264,116 @@ class CachingModuleComponentRepositoryTest extends Specification {
         true              | MetadataFetchingCost.FAST      | MetadataFetchingCost.FAST
         true              | MetadataFetchingCost.EXPENSIVE | MetadataFetchingCost.EXPENSIVE
     }
+
+    def "does not consult module presence index when disabled"() {
+        def moduleId = DefaultModuleIdentifier.newId("org", "foo")
+        def componentId = DefaultModuleComponentIdentifier.newId(moduleId, "1.0")
+        def result = new DefaultBuildableModuleComponentMetaDataResolveResult()
+
+        when:
+        repo.localAccess.resolveComponentMetaData(componentId, Stub(ComponentOverrideMetadata), result)
+
+        then:
+        1 * moduleDescriptorCache.getCachedModuleDescriptor(realRepo, componentId) >> null
+        0 * modulePresenceCache._
+        !result.hasResult()
+    }
+
+    @Unroll
+    def "uses module presence index to detect missing module when enabled (must refresh = #mustRefresh)"() {
+        def repo = new CachingModuleComponentRepository(realRepo, caches, cachePolicy, new BuildCommencedTimeProvider(), metadataProcessor, true)
+        def moduleId = DefaultModuleIdentifier.newId("org", "foo")
+        def componentId = DefaultModuleComponentIdentifier.newId(moduleId, "1.0")
+        def result = new DefaultBuildableModuleComponentMetaDataResolveResult()
+        cachePolicy.mustRefreshMissingModule(componentId, 10) >> mustRefresh
+
+        when:
+        repo.localAccess.resolveComponentMetaData(componentId, Stub(ComponentOverrideMetadata), result)
+
+        then:
+        1 * moduleDescriptorCache.getCachedModuleDescriptor(realRepo, componentId) >> null
+        1 * modulePresenceCache.getCachedMissingModule(realRepo, moduleId) >> Stub(ModulePresenceCache.CachedMissingModule) {
+            getAgeMillis() >> 10
+        }
+        result.hasResult() == !mustRefresh
+        mustRefresh || result.state == BuildableModuleComponentMetaDataResolveResult.State.Missing
+        mustRefresh || result.authoritative
+
+        where:
+        mustRefresh << [true, false]
+    }
+
+    def "records absence of module in module presence index when a version is missing"() {
+        def repo = new CachingModuleComponentRepository(realRepo, caches, cachePolicy, new BuildCommencedTimeProvider(), metadataProcessor, true)
+        def moduleId = DefaultModuleIdentifier.newId("org", "foo")
+        def componentId = DefaultModuleComponentIdentifier.newId(moduleId, "1.0")
+        def result = new DefaultBuildableModuleComponentMetaDataResolveResult()
+
+        when:
+        repo.remoteAccess.resolveComponentMetaData(componentId, Stub(ComponentOverrideMetadata), result)
+
+        then:
+        1 * realRemoteAccess.resolveComponentMetaData(componentId, _, result) >> {
+            result.missing()
+        }
+        1 * moduleDescriptorCache.cacheMissing(realRepo, componentId)
+        1 * modulePresenceCache.cacheModuleVersionMissing(realRepo, moduleId)
+        0 * modulePresenceCache._
+    }
+
+    @Unroll
+    def "uses module presence index to list versions only when absence was recorded from an empty listing (empty listing = #versionListingEmpty)"() {
+        def repo = new CachingModuleComponentRepository(realRepo, caches, cachePolicy, new BuildCommencedTimeProvider(), metadataProcessor, true)
+        def moduleId = DefaultModuleIdentifier.newId("org", "foo")
+        def dependency = Stub(ModuleDependencyMetadata) {
+            getSelector() >> Stub(ModuleComponentSelector) {
+                getModuleIdentifier() >> moduleId
+            }
+        }
+        def result = new DefaultBuildableModuleVersionListingResolveResult()
+        moduleResolutionCache.getCachedModuleResolution(realRepo, moduleId) >> null
+        cachePolicy.mustRefreshVersionList(moduleId, [] as Set, 10) >> false
+
+        when:
+        repo.localAccess.listModuleVersions(dependency, result)
+
+        then:
+        1 * modulePresenceCache.getCachedMissingModule(realRepo, moduleId) >> Stub(ModulePresenceCache.CachedMissingModule) {
+            getAgeMillis() >> 10
+            isVersionListingEmpty() >> versionListingEmpty
+        }
+        result.hasResult() == versionListingEmpty
+        !versionListingEmpty || result.versions.empty
+
+        where:
+        versionListingEmpty << [true, false]
+    }
+
+    @Unroll
+    def "records module presence and absence in module presence index from version listing when enabled (versions = #versions)"() {
+        def repo = new CachingModuleComponentRepository(realRepo, caches, cachePolicy, new BuildCommencedTimeProvider(), metadataProcessor, true)
+        def moduleId = DefaultModuleIdentifier.newId("org", "foo")
+        def dependency = Stub(ModuleDependencyMetadata) {
+            getSelector() >> Stub(ModuleComponentSelector) {
+                getModuleIdentifier() >> moduleId
+            }
+        }
+        def result = new DefaultBuildableModuleVersionListingResolveResult()
+
+        when:
+        repo.remoteAccess.listModuleVersions(dependency, result)
+
+        then:
+        1 * realRemoteAccess.listModuleVersions(dependency, result) >> {
+            result.listed(versions)
+        }
+        missing * modulePresenceCache.cacheModuleMissing(realRepo, moduleId)
+        present * modulePresenceCache.cacheModulePresent(realRepo, moduleId)
+        0 * modulePresenceCache._
+
+        where:
+        versions     | missing | present
+        []           | 1       | 0
+        ['1.0', '2'] | 0       | 1
+    }
 }
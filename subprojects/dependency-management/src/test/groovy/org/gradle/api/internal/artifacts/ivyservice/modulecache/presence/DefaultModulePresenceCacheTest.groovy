@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.presence
+
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory
+import org.gradle.api.internal.artifacts.ivyservice.ArtifactCacheLockingManager
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleComponentRepository
+import org.gradle.testfixtures.internal.InMemoryIndexedCache
+import org.gradle.util.BuildCommencedTimeProvider
+import spock.lang.Specification
+
+class DefaultModulePresenceCacheTest extends Specification {
+    def timeProvider = Stub(BuildCommencedTimeProvider) {
+        getCurrentTime() >> 1000
+    }
+    def repository = Stub(ModuleComponentRepository) {
+        getId() >> "repo"
+        getName() >> "repo"
+    }
+    def foo = DefaultModuleIdentifier.newId("org", "foo")
+    def bar = DefaultModuleIdentifier.newId("org", "bar")
+    def presentModulesCache
+    def missingModulesCache
+    def artifactCacheLockingManager = Stub(ArtifactCacheLockingManager) {
+        createCache("module-presence", _, _) >> { String name, keySerializer, valueSerializer ->
+            if (presentModulesCache == null) {
+                presentModulesCache = new InMemoryIndexedCache(valueSerializer)
+            }
+            presentModulesCache
+        }
+        createCache("module-absence", _, _) >> { String name, keySerializer, valueSerializer ->
+            if (missingModulesCache == null) {
+                missingModulesCache = new InMemoryIndexedCache(valueSerializer)
+            }
+            missingModulesCache
+        }
+        useCache(_ as Runnable) >> { Runnable action -> action.run() }
+    }
+
+    def "merges recorded presence with presence stored by other builds when stopped"() {
+        def first = createCache()
+        def second = createCache()
+
+        when:
+        first.cacheModulePresent(repository, foo)
+        second.cacheModulePresent(repository, bar)
+        first.stop()
+        second.stop()
+
+        then:
+        def presentModules = createCache().getPresentModules("repo")
+        presentModules.mightContain("org:foo")
+        presentModules.mightContain("org:bar")
+    }
+
+    def "removes stored absence when presence is recorded"() {
+        def cache = createCache()
+
+        given:
+        cache.cacheModuleMissing(repository, foo)
+
+        when:
+        cache.cacheModulePresent(repository, foo)
+        cache.stop()
+
+        then:
+        createCache().getCachedMissingModule(repository, foo) == null
+    }
+
+    def "stores kind of recorded absence"() {
+        def cache = createCache()
+
+        when:
+        cache.cacheModuleMissing(repository, foo)
+        cache.cacheModuleVersionMissing(repository, bar)
+
+        then:
+        def reloaded = createCache()
+        reloaded.getCachedMissingModule(repository, foo).versionListingEmpty
+        !reloaded.getCachedMissingModule(repository, bar).versionListingEmpty
+    }
+
+    private DefaultModulePresenceCache createCache() {
+        new DefaultModulePresenceCache(timeProvider, artifactCacheLockingManager, Stub(ImmutableModuleIdentifierFactory))
+    }
+}
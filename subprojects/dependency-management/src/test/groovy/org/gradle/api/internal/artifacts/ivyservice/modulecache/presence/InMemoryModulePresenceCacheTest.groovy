@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.presence
+
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleComponentRepository
+import org.gradle.util.BuildCommencedTimeProvider
+import spock.lang.Specification
+
+class InMemoryModulePresenceCacheTest extends Specification {
+    def timeProvider = Stub(BuildCommencedTimeProvider) {
+        getCurrentTime() >> 1000
+    }
+    def repository = Stub(ModuleComponentRepository) {
+        getId() >> "repo"
+        getName() >> "repo"
+    }
+    def otherRepository = Stub(ModuleComponentRepository) {
+        getId() >> "other"
+        getName() >> "other"
+    }
+    def foo = DefaultModuleIdentifier.newId("org", "foo")
+    def bar = DefaultModuleIdentifier.newId("org", "bar")
+    def cache = new InMemoryModulePresenceCache(timeProvider)
+
+    def "unknown module is not reported as missing"() {
+        expect:
+        cache.getCachedMissingModule(repository, foo) == null
+    }
+
+    def "reports missing module per repository"() {
+        when:
+        cache.cacheModuleMissing(repository, foo)
+
+        then:
+        cache.getCachedMissingModule(repository, foo).ageMillis == 0
+        cache.getCachedMissingModule(repository, bar) == null
+        cache.getCachedMissingModule(otherRepository, foo) == null
+    }
+
+    def "does not record absence of module that repository provided before"() {
+        when:
+        cache.cacheModulePresent(repository, foo)
+        cache.cacheModuleMissing(repository, foo)
+
+        then:
+        cache.getCachedMissingModule(repository, foo) == null
+    }
+
+    def "presence of module overrides previously recorded absence"() {
+        when:
+        cache.cacheModuleMissing(repository, foo)
+        cache.cacheModulePresent(repository, foo)
+
+        then:
+        cache.getCachedMissingModule(repository, foo) == null
+    }
+
+    def "records absence of module after a missing version"() {
+        when:
+        cache.cacheModuleVersionMissing(repository, foo)
+
+        then:
+        !cache.getCachedMissingModule(repository, foo).versionListingEmpty
+
+        when:
+        cache.cacheModuleMissing(repository, foo)
+
+        then:
+        cache.getCachedMissingModule(repository, foo).versionListingEmpty
+    }
+
+    def "missing version does not replace absence recorded from an empty version listing"() {
+        when:
+        cache.cacheModuleMissing(repository, foo)
+        cache.cacheModuleVersionMissing(repository, foo)
+
+        then:
+        cache.getCachedMissingModule(repository, foo).versionListingEmpty
+    }
+
+    def "does not record absence of module after a missing version when repository provided the module before"() {
+        when:
+        cache.cacheModulePresent(repository, foo)
+        cache.cacheModuleVersionMissing(repository, foo)
+
+        then:
+        cache.getCachedMissingModule(repository, foo) == null
+    }
+
+    def "stores recorded presence only when stopped"() {
+        when:
+        cache.cacheModulePresent(repository, foo)
+
+        then:
+        cache.getPresentModules("repo") == null
+
+        when:
+        cache.stop()
+
+        then:
+        cache.getPresentModules("repo").mightContain("org:foo")
+        cache.getPresentModules("other") == null
+    }
+}
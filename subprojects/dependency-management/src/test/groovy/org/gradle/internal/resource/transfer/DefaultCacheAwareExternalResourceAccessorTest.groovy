@@ -111,6 +111,7 @@ class DefaultCacheAwareExternalResourceAccessorTest extends Specification {
         def metaData = Mock(ExternalResourceMetaData)
         def localResource = new DefaultLocallyAvailableResource(cachedFile)
         def cachedResource = Stub(LocallyAvailableExternalResource)
+        def content = "content".bytes
 
         when:
         def result = cache.getResource(location, null, fileStore, localCandidates)
@@ -125,11 +126,11 @@ class DefaultCacheAwareExternalResourceAccessorTest extends Specification {
         1 * progressLoggingRepo.resource(location) >> remoteResource
         _ * remoteResource.name >> "remoteResource"
         1 * remoteResource.withContentIfPresent(_) >> { ExternalResource.ContentAction a ->
-            a.execute(new ByteArrayInputStream(), metaData)
+            a.execute(new ByteArrayInputStream(content), metaData)
         }
 
         and:
-        1 * fileStore.moveIntoCache(tempFile) >> localResource
+        1 * fileStore.moveIntoCache(tempFile, HashUtil.sha1(content)) >> localResource
         1 * index.store("thing", cachedFile, metaData)
         1 * fileRepository.resource(cachedFile, location.uri, metaData) >> cachedResource
         0 * _._
@@ -199,7 +200,7 @@ class DefaultCacheAwareExternalResourceAccessorTest extends Specification {
         0 * _._
 
         and:
-        1 * fileStore.moveIntoCache(tempFile) >> localResource
+        1 * fileStore.moveIntoCache(tempFile, sha1) >> localResource
         1 * index.store("thing", cachedFile, remoteMetaData)
         1 * fileRepository.resource(cachedFile, location.uri, remoteMetaData) >> resultResource
         0 * _._
@@ -287,7 +288,7 @@ class DefaultCacheAwareExternalResourceAccessorTest extends Specification {
         0 * _._
 
         and:
-        1 * fileStore.moveIntoCache(tempFile) >> localResource
+        1 * fileStore.moveIntoCache(tempFile, _) >> localResource
         1 * index.store("thing", cachedFile, remoteMetaData)
         1 * fileRepository.resource(cachedFile, location.uri, remoteMetaData) >> resultResource
         0 * _._
@@ -331,7 +332,7 @@ class DefaultCacheAwareExternalResourceAccessorTest extends Specification {
         0 * _._
 
         and:
-        1 * fileStore.moveIntoCache(tempFile) >> localResource
+        1 * fileStore.moveIntoCache(tempFile, _) >> localResource
         1 * index.store("thing", cachedFile, remoteMetaData)
         1 * fileRepository.resource(cachedFile, location.uri, remoteMetaData) >> resultResource
         0 * _._
@@ -378,7 +379,7 @@ class DefaultCacheAwareExternalResourceAccessorTest extends Specification {
         0 * _._
 
         and:
-        1 * fileStore.moveIntoCache(tempFile) >> localResource
+        1 * fileStore.moveIntoCache(tempFile, _) >> localResource
         1 * index.store("thing", cachedFile, remoteMetaData)
         1 * fileRepository.resource(cachedFile, location.uri, remoteMetaData) >> resultResource
         0 * _._
@@ -430,7 +431,7 @@ class DefaultCacheAwareExternalResourceAccessorTest extends Specification {
         0 * _._
 
         and:
-        1 * fileStore.moveIntoCache(tempFile) >> localResource
+        1 * fileStore.moveIntoCache(tempFile, _) >> localResource
         1 * index.store("thing", cachedFile, remoteMetaData)
         1 * fileRepository.resource(cachedFile, location.uri, remoteMetaData) >> resultResource
         0 * _._
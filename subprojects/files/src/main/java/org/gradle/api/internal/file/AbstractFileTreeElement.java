@@ -91,7 +91,7 @@ public abstract class AbstractFileTreeElement implements FileTreeElement {
         }
     }
 
-    private void copyFile(File target) throws IOException {
+    protected void copyFile(File target) throws IOException {
         FileOutputStream outputStream = new FileOutputStream(target);
         try {
             copyTo(outputStream);
@@ -22,7 +22,11 @@ import org.gradle.internal.nativeintegration.filesystem.Stat;
 import org.gradle.util.GFileUtils;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 
 public class DefaultFileTreeElement extends AbstractFileTreeElement {
     private final File file;
@@ -71,6 +75,35 @@ public class DefaultFileTreeElement extends AbstractFileTreeElement {
         return GFileUtils.openInputStream(file);
     }
 
+    /**
+     * Copies the content of the file using file channels, which lets the operating system transfer the bytes without copying them through the JVM heap.
+     */
+    @Override
+    protected void copyFile(File target) throws IOException {
+        FileInputStream inputStream = new FileInputStream(file);
+        try {
+            FileOutputStream outputStream = new FileOutputStream(target);
+            try {
+                FileChannel source = inputStream.getChannel();
+                FileChannel destination = outputStream.getChannel();
+                long size = source.size();
+                long position = 0;
+                while (position < size) {
+                    long transferred = source.transferTo(position, size - position, destination);
+                    if (transferred <= 0) {
+                        // The file has been truncated while copying
+                        break;
+                    }
+                    position += transferred;
+                }
+            } finally {
+                outputStream.close();
+            }
+        } finally {
+            inputStream.close();
+        }
+    }
+
     @Override
     public RelativePath getRelativePath() {
         return relativePath;
@@ -22,6 +22,7 @@ import com.google.common.collect.Maps;
 import org.apache.commons.lang.StringUtils;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
+import org.gradle.api.Transformer;
 import org.gradle.api.initialization.IncludedBuild;
 import org.gradle.api.internal.project.ProjectStateRegistry;
 import org.gradle.api.invocation.Gradle;
@@ -89,6 +90,7 @@ public class EclipseModelBuilder implements ParameterizedToolingModelBuilder<Ecl
     private DefaultGradleProject rootGradleProject;
     private Project currentProject;
     private EclipseRuntime eclipseRuntime;
+    private Map<Project, List<ClasspathEntry>> resolvedClasspathEntries;
 
     @VisibleForTesting
     public EclipseModelBuilder(GradleProjectBuilder gradleProjectBuilder, ServiceRegistry services, EclipseModelAwareUniqueProjectNameProvider uniqueProjectNameProvider) {
@@ -130,7 +132,12 @@ public class EclipseModelBuilder implements ParameterizedToolingModelBuilder<Ecl
         applyEclipsePlugin(root);
         deduplicateProjectNames(root);
         buildHierarchy(root);
-        populate(root);
+        resolvedClasspathEntries = resolveClasspathEntries(root);
+        try {
+            populate(root);
+        } finally {
+            resolvedClasspathEntries = null;
+        }
         return result;
     }
 
@@ -183,6 +190,23 @@ public class EclipseModelBuilder implements ParameterizedToolingModelBuilder<Ecl
         eclipseProjects.add(eclipseProject);
     }
 
+    private Map<Project, List<ClasspathEntry>> resolveClasspathEntries(Project root) {
+        List<Project> projectsToResolve = Lists.newArrayList();
+        for (Project project : root.getAllprojects()) {
+            if (project.getExtensions().getByType(EclipseModel.class).getClasspath().getFile() == null) {
+                projectsToResolve.add(project);
+            }
+        }
+        return ProjectDependencyResolution.resolveAll(projectsToResolve, new Transformer<List<ClasspathEntry>, Project>() {
+            @Override
+            public List<ClasspathEntry> transform(Project project) {
+                EclipseClasspath eclipseClasspath = project.getExtensions().getByType(EclipseModel.class).getClasspath();
+                eclipseClasspath.setProjectDependenciesOnly(projectDependenciesOnly);
+                return eclipseClasspath.resolveDependencies();
+            }
+        });
+    }
+
     private void populate(Project project) {
         EclipseModel eclipseModel = project.getExtensions().getByType(EclipseModel.class);
         EclipseClasspath eclipseClasspath = eclipseModel.getClasspath();
@@ -191,7 +215,7 @@ public class EclipseModelBuilder implements ParameterizedToolingModelBuilder<Ecl
 
         List<ClasspathEntry> classpathEntries;
         if (eclipseClasspath.getFile() == null) {
-            classpathEntries = eclipseClasspath.resolveDependencies();
+            classpathEntries = resolvedClasspathEntries.get(project);
         } else {
             Classpath classpath = new Classpath(eclipseClasspath.getFileReferenceFactory());
             eclipseClasspath.mergeXmlClasspath(classpath);
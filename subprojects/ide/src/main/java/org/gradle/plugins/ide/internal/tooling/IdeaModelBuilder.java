@@ -19,6 +19,7 @@ package org.gradle.plugins.ide.internal.tooling;
 import com.google.common.collect.Lists;
 import org.gradle.api.JavaVersion;
 import org.gradle.api.Project;
+import org.gradle.api.Transformer;
 import org.gradle.api.initialization.IncludedBuild;
 import org.gradle.api.plugins.JavaPluginConvention;
 import org.gradle.internal.build.IncludedBuildState;
@@ -49,9 +50,11 @@ import org.gradle.tooling.provider.model.ToolingModelBuilder;
 
 import java.io.File;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class IdeaModelBuilder implements ToolingModelBuilder {
@@ -102,9 +105,10 @@ public class IdeaModelBuilder implements ToolingModelBuilder {
                 .setTargetBytecodeVersion(projectTargetBytecodeLevel)
                 .setJdk(DefaultInstalledJdk.current()));
 
+        Map<Project, Set<Dependency>> dependencies = resolveDependencies(projectModel.getModules());
         List<DefaultIdeaModule> ideaModules = Lists.newArrayList();
         for (IdeaModule module : projectModel.getModules()) {
-            ideaModules.add(createModule(module, out, rootGradleProject));
+            ideaModules.add(createModule(module, dependencies.get(module.getProject()), out, rootGradleProject));
         }
         out.setChildren(new LinkedList<DefaultIdeaModule>(ideaModules));
         return out;
@@ -114,9 +118,22 @@ public class IdeaModelBuilder implements ToolingModelBuilder {
         return project.getPlugins().getPlugin(IdeaPlugin.class);
     }
 
-    private void buildDependencies(DefaultIdeaModule tapiModule, IdeaModule ideaModule) {
-        ideaModule.setOffline(offlineDependencyResolution);
-        Set<Dependency> resolved = ideaModule.resolveDependencies();
+    private Map<Project, Set<Dependency>> resolveDependencies(Iterable<IdeaModule> modules) {
+        final Map<Project, IdeaModule> modulesByProject = new LinkedHashMap<Project, IdeaModule>();
+        for (IdeaModule module : modules) {
+            modulesByProject.put(module.getProject(), module);
+        }
+        return ProjectDependencyResolution.resolveAll(Lists.newArrayList(modulesByProject.keySet()), new Transformer<Set<Dependency>, Project>() {
+            @Override
+            public Set<Dependency> transform(Project project) {
+                IdeaModule ideaModule = modulesByProject.get(project);
+                ideaModule.setOffline(offlineDependencyResolution);
+                return ideaModule.resolveDependencies();
+            }
+        });
+    }
+
+    private void buildDependencies(DefaultIdeaModule tapiModule, Set<Dependency> resolved) {
         List<DefaultIdeaDependency> dependencies = new LinkedList<DefaultIdeaDependency>();
         for (Dependency dependency : resolved) {
             if (dependency instanceof SingleEntryModuleLibrary) {
@@ -145,7 +162,7 @@ public class IdeaModelBuilder implements ToolingModelBuilder {
         tapiModule.setDependencies(dependencies);
     }
 
-    private DefaultIdeaModule createModule(IdeaModule ideaModule, DefaultIdeaProject ideaProject, DefaultGradleProject rootGradleProject) {
+    private DefaultIdeaModule createModule(IdeaModule ideaModule, Set<Dependency> dependencies, DefaultIdeaProject ideaProject, DefaultGradleProject rootGradleProject) {
         DefaultIdeaContentRoot contentRoot = new DefaultIdeaContentRoot()
             .setRootDirectory(ideaModule.getContentRoot())
             .setSourceDirectories(srcDirs(ideaModule.getSourceDirs(), ideaModule.getGeneratedSourceDirs()))
@@ -175,7 +192,7 @@ public class IdeaModelBuilder implements ToolingModelBuilder {
                 .setSourceLanguageLevel(moduleSourceLanguageLevel)
                 .setTargetBytecodeVersion(moduleTargetBytecodeVersion));
         }
-        buildDependencies(defaultIdeaModule, ideaModule);
+        buildDependencies(defaultIdeaModule, dependencies);
 
         return defaultIdeaModule;
     }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugins.ide.internal.tooling;
+
+import org.gradle.api.Action;
+import org.gradle.api.Project;
+import org.gradle.api.Transformer;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectStateRegistry;
+import org.gradle.internal.Factory;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resources.ResourceLock;
+import org.gradle.internal.work.WorkerLeaseService;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the IDE dependencies of a set of projects.
+ *
+ * When enabled, the dependencies of the projects are resolved concurrently, each project while holding its own project lock.
+ * Project state locking is enabled during the resolution, even though model builders otherwise run with lenient state.
+ * Otherwise, they are resolved one project after the other on the calling thread.
+ */
+class ProjectDependencyResolution {
+    public static final String PARALLEL_RESOLUTION_PROPERTY = "org.gradle.internal.ide.parallel.resolution";
+
+    private ProjectDependencyResolution() {
+    }
+
+    /**
+     * Applies the given resolver to each of the given projects, returning the results in project order.
+     */
+    static <T> Map<Project, T> resolveAll(List<? extends Project> projects, Transformer<T, Project> resolver) {
+        final Map<Project, T> results = new LinkedHashMap<Project, T>();
+        if (projects.size() < 2 || !Boolean.getBoolean(PARALLEL_RESOLUTION_PROPERTY)) {
+            for (Project project : projects) {
+                results.put(project, resolver.transform(project));
+            }
+            return results;
+        }
+
+        // Keep the project order, even though the results are produced concurrently
+        for (Project project : projects) {
+            results.put(project, null);
+        }
+        final Map<Project, T> synchronizedResults = Collections.synchronizedMap(results);
+        ProjectInternal firstProject = (ProjectInternal) projects.get(0);
+        final BuildOperationExecutor buildOperationExecutor = firstProject.getServices().get(BuildOperationExecutor.class);
+        final WorkerLeaseService workerLeaseService = firstProject.getServices().get(WorkerLeaseService.class);
+        ProjectStateRegistry projectStateRegistry = firstProject.getServices().get(ProjectStateRegistry.class);
+        final List<? extends Project> projectsToResolve = projects;
+        // Model builders run with lenient project state, which would let this thread use projects without locking them
+        // while it runs some of the operations below. Lock project state as usual for the whole resolution instead.
+        projectStateRegistry.withStrictState(new Runnable() {
+            @Override
+            public void run() {
+                // Do not hold on to any project lock while waiting for the other threads, as they may need it
+                workerLeaseService.withoutProjectLock(new Runnable() {
+                    @Override
+                    public void run() {
+                        buildOperationExecutor.runAll(new Action<BuildOperationQueue<ResolveProjectDependencies<T>>>() {
+                            @Override
+                            public void execute(BuildOperationQueue<ResolveProjectDependencies<T>> queue) {
+                                for (Project project : projectsToResolve) {
+                                    queue.add(new ResolveProjectDependencies<T>((ProjectInternal) project, resolver, workerLeaseService, synchronizedResults));
+                                }
+                            }
+                        });
+                    }
+                });
+            }
+        });
+        return results;
+    }
+
+    private static class ResolveProjectDependencies<T> implements RunnableBuildOperation {
+        private final ProjectInternal project;
+        private final Transformer<T, Project> resolver;
+        private final WorkerLeaseService workerLeaseService;
+        private final Map<Project, T> results;
+
+        ResolveProjectDependencies(ProjectInternal project, Transformer<T, Project> resolver, WorkerLeaseService workerLeaseService, Map<Project, T> results) {
+            this.project = project;
+            this.resolver = resolver;
+            this.workerLeaseService = workerLeaseService;
+            this.results = results;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            // Hold the project lock for the whole resolution, not only for the parts that use ProjectState.withMutableState()
+            ResourceLock projectLock = workerLeaseService.getProjectLock(project.getGradle().getIdentityPath(), project.getIdentityPath());
+            T result = workerLeaseService.withLocks(Collections.singleton(projectLock), new Factory<T>() {
+                @Override
+                public T create() {
+                    return resolver.transform(project);
+                }
+            });
+            results.put(project, result);
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Resolve IDE dependencies of " + project.getDisplayName());
+        }
+    }
+}
@@ -39,13 +39,18 @@ import org.gradle.plugins.ide.internal.tooling.GradleProjectBuilder
 import org.gradle.test.fixtures.AbstractProjectBuilderSpec
 import org.gradle.test.fixtures.file.CleanupTestDirectory
 import org.gradle.testfixtures.ProjectBuilder
+import org.gradle.util.SetSystemProperties
 import org.gradle.util.TestUtil
 import org.gradle.util.UsesNativeServices
+import org.junit.Rule
 import spock.lang.Unroll
 
 @UsesNativeServices
 @CleanupTestDirectory
 class EclipseModelBuilderTest extends AbstractProjectBuilderSpec {
+    @Rule
+    SetSystemProperties systemProperties = new SetSystemProperties()
+
     Project child1
     Project child2
 
@@ -323,6 +328,30 @@ class EclipseModelBuilderTest extends AbstractProjectBuilderSpec {
         eclipseModel.linkedResources.collect { it.name } == ['linkAfter']
     }
 
+    def "resolves the same classpath when projects are resolved in parallel"() {
+        given:
+        [project, child1, child2].each { p ->
+            p.plugins.apply(JavaPlugin)
+            def lib = temporaryFolder.createFile("libs/${p.name}.jar")
+            p.dependencies.add("implementation", p.files(lib))
+        }
+
+        when:
+        def serialModel = createEclipseModelBuilder().buildAll("org.gradle.tooling.model.eclipse.EclipseProject", project)
+        System.setProperty("org.gradle.internal.ide.parallel.resolution", "true")
+        def parallelModel = createEclipseModelBuilder().buildAll("org.gradle.tooling.model.eclipse.EclipseProject", project)
+
+        then:
+        classpathOf(parallelModel) == classpathOf(serialModel)
+        classpathOf(parallelModel)["child1"].contains(temporaryFolder.file("libs/child1.jar"))
+    }
+
+    private static Map<String, List<File>> classpathOf(DefaultEclipseProject eclipseProject) {
+        def classpath = [(eclipseProject.name): eclipseProject.classpath*.file]
+        eclipseProject.children.each { classpath.putAll(classpathOf(it)) }
+        classpath
+    }
+
     private def createEclipseModelBuilder() {
         def gradleProjectBuilder = new GradleProjectBuilder()
         def serviceRegistry = new DefaultServiceRegistry()
@@ -31,9 +31,14 @@ import org.gradle.plugins.ide.internal.tooling.IdeaModelBuilder
 import org.gradle.test.fixtures.AbstractProjectBuilderSpec
 import org.gradle.testfixtures.ProjectBuilder
 import org.gradle.plugins.ide.internal.tooling.model.DefaultGradleProject
+import org.gradle.util.SetSystemProperties
 import org.gradle.util.TestUtil
+import org.junit.Rule
 
 class IdeaModelBuilderTest extends AbstractProjectBuilderSpec {
+    @Rule
+    SetSystemProperties systemProperties = new SetSystemProperties()
+
     Project root
     Project child1
     Project child2
@@ -287,6 +292,28 @@ class IdeaModelBuilderTest extends AbstractProjectBuilderSpec {
         ideaProject.javaLanguageSettings.languageLevel == defaultIdeaPluginLanguageLevelForJavaProjects
     }
 
+    def "resolves the same module dependencies when projects are resolved in parallel"() {
+        given:
+        [root, child1, child2].each { p ->
+            p.plugins.apply(JavaPlugin)
+            def lib = temporaryFolder.createFile("libs/${p.name}.jar")
+            p.dependencies.add("implementation", p.files(lib))
+        }
+
+        when:
+        def serialModel = buildIdeaProjectModel()
+        System.setProperty("org.gradle.internal.ide.parallel.resolution", "true")
+        def parallelModel = buildIdeaProjectModel()
+
+        then:
+        dependenciesOf(parallelModel) == dependenciesOf(serialModel)
+        dependenciesOf(parallelModel)["child1"].contains(temporaryFolder.file("libs/child1.jar"))
+    }
+
+    private static Map<String, List<File>> dependenciesOf(DefaultIdeaProject ideaProject) {
+        ideaProject.modules.collectEntries { [(it.name): it.dependencies*.file] }
+    }
+
     private DefaultIdeaProject buildIdeaProjectModel() {
         def builder = createIdeaModelBuilder()
         buildIdeaProject(builder, root)
@@ -123,6 +123,50 @@ class InstantExecutionIntegrationTest extends AbstractInstantExecutionIntegratio
         result.assertTasksExecuted(":a")
     }
 
+    def "configures build again when a build input has changed"() {
+        given:
+        def script = file("other.gradle") << """
+            println "running other script"
+        """
+        buildFile << """
+            println "running build script"
+            apply from: "other.gradle"
+            task a
+        """
+
+        when:
+        instantRun "a"
+        instantRun "a"
+
+        then:
+        outputDoesNotContain("running build script")
+
+        when:
+        script << """
+            println "running changed script"
+        """
+        instantRun "a"
+
+        then:
+        outputContains("Calculating task graph as instant execution cache cannot be reused because file '${script}' has changed.")
+        outputContains("running changed script")
+        result.assertTasksExecuted(":a")
+
+        when:
+        instantRun "a", "-Dsome.property=value"
+
+        then:
+        outputContains("Calculating task graph as instant execution cache cannot be reused because system properties have changed.")
+        outputContains("running build script")
+
+        when:
+        instantRun "a", "-Dsome.property=value"
+
+        then:
+        outputDoesNotContain("running build script")
+        result.assertTasksExecuted(":a")
+    }
+
     @Rule
     BlockingHttpServer server = new BlockingHttpServer()
 
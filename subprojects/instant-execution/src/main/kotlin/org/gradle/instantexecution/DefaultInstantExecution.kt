@@ -30,7 +30,9 @@ import org.gradle.initialization.InstantExecution
 import org.gradle.internal.classloader.ClasspathUtil
 import org.gradle.internal.classpath.ClassPath
 import org.gradle.internal.classpath.DefaultClassPath
+import org.gradle.internal.hash.HashCode
 import org.gradle.internal.hash.HashUtil
+import org.gradle.internal.hash.Hashing
 import org.gradle.internal.serialize.BaseSerializerFactory
 import org.gradle.internal.serialize.Decoder
 import org.gradle.internal.serialize.Encoder
@@ -69,6 +71,12 @@ class DefaultInstantExecution(
 
         fun getSystemProperty(propertyName: String): String?
 
+        val systemPropertyArgs: Map<String, String>
+
+        val configurationInputFiles: Set<File>
+
+        fun hashOf(file: File): HashCode
+
         val rootDir: File
 
         val requestedTaskNames: List<String>
@@ -87,22 +95,97 @@ class DefaultInstantExecution(
             logger.lifecycle("Calculating task graph as skipping instant execution cache was requested")
             false
         }
-        !instantExecutionStateFile.isFile -> {
+        !instantExecutionStateFile.isFile || !instantExecutionFingerprintFile.isFile -> {
             logger.lifecycle("Calculating task graph as no instant execution cache is available for tasks: ${host.requestedTaskNames.joinToString(" ")}")
             false
         }
-        else -> {
-            logger.lifecycle("Reusing instant execution cache. This is not guaranteed to work in any way.")
-            true
+        else -> when (val reason = checkFingerprint()) {
+            null -> {
+                logger.lifecycle("Reusing instant execution cache. This is not guaranteed to work in any way.")
+                true
+            }
+            else -> {
+                logger.lifecycle("Calculating task graph as instant execution cache cannot be reused because $reason.")
+                false
+            }
         }
     }
 
     override fun saveTaskGraph() {
         if (isInstantExecutionEnabled) {
-            saveTasks(host.currentBuild)
+            val classPath = saveTasks(host.currentBuild)
+            saveFingerprint(classPath)
         }
     }
 
+    /**
+     * Records the files and system properties the configuration of the build depends on, so
+     * that the cached task graph is only reused while they are unchanged.
+     */
+    private
+    fun saveFingerprint(taskClassPath: ClassPath) {
+        val inputFiles = LinkedHashSet(host.configurationInputFiles).apply {
+            addAll(taskClassPath.asFiles)
+        }
+        KryoBackedEncoder(instantExecutionFingerprintFile.outputStream()).use { encoder ->
+            encoder.serializeCollection(inputFiles) { file ->
+                encoder.writeFile(file)
+                encoder.writeNullableString(hashOf(file))
+            }
+            encoder.serializeCollection(host.systemPropertyArgs.entries) { (name, value) ->
+                encoder.writeString(name)
+                encoder.writeString(value)
+            }
+        }
+    }
+
+    /**
+     * Returns the reason why the cached task graph cannot be reused, or `null` when it can be.
+     */
+    private
+    fun checkFingerprint(): String? {
+        KryoBackedDecoder(instantExecutionFingerprintFile.inputStream()).use { decoder ->
+            val fileCount = decoder.readSmallInt()
+            for (i in 0 until fileCount) {
+                val file = decoder.readFile()
+                if (decoder.readNullableString() != hashOf(file)) {
+                    return "file '$file' has changed"
+                }
+            }
+            val systemPropertyArgs = decoder.deserializeCollectionInto({ size -> HashMap<String, String>(size) }) { container ->
+                container[decoder.readString()] = decoder.readString()
+            }
+            if (systemPropertyArgs != host.systemPropertyArgs) {
+                return "system properties have changed"
+            }
+        }
+        return null
+    }
+
+    private
+    fun hashOf(file: File): String? = when {
+        file.isFile -> host.hashOf(file).toString()
+        file.isDirectory -> hashOfDirectory(file).toString()
+        else -> null
+    }
+
+    /**
+     * Hashes the relative paths and contents of the files in the given directory tree, such as class path directories.
+     */
+    private
+    fun hashOfDirectory(directory: File): HashCode {
+        val hasher = Hashing.newHasher()
+        directory.walkTopDown()
+            .filter { it.isFile }
+            .map { it.relativeTo(directory).invariantSeparatorsPath to it }
+            .sortedBy { (path, _) -> path }
+            .forEach { (path, file) ->
+                hasher.putString(path)
+                hasher.putHash(host.hashOf(file))
+            }
+        return hasher.hash()
+    }
+
     override fun loadTaskGraph() {
         KryoBackedDecoder(instantExecutionStateFile.inputStream()).use { decoder ->
             val rootProjectName = decoder.readString()
@@ -115,9 +198,9 @@ class DefaultInstantExecution(
     }
 
     private
-    fun saveTasks(build: ClassicModeBuild) {
+    fun saveTasks(build: ClassicModeBuild): ClassPath {
         Files.createDirectories(instantExecutionStateFile.parentFile.toPath())
-        KryoBackedEncoder(instantExecutionStateFile.outputStream()).use { encoder ->
+        return KryoBackedEncoder(instantExecutionStateFile.outputStream()).use { encoder ->
             encoder.writeString(build.rootProject.name)
             val scheduledTasks = build.scheduledTasks
             saveRelevantProjectsFor(scheduledTasks, encoder)
@@ -130,6 +213,7 @@ class DefaultInstantExecution(
                     throw GradleException("Could not save state of $task.", e)
                 }
             }
+            relevantClassPath
         }
     }
 
@@ -237,11 +321,20 @@ class DefaultInstantExecution(
 
     private
     val instantExecutionStateFile by lazy {
+        instantExecutionCacheFile("bin")
+    }
+
+    private
+    val instantExecutionFingerprintFile by lazy {
+        instantExecutionCacheFile("fingerprint.bin")
+    }
+
+    private
+    fun instantExecutionCacheFile(extension: String): File {
         val currentGradleVersion = GradleVersion.current().version
         val cacheDir = File(host.rootDir, ".instant-execution-state/$currentGradleVersion").absoluteFile
         val baseName = HashUtil.createCompactMD5(host.requestedTaskNames.joinToString("/"))
-        val cacheFileName = "$baseName.bin"
-        File(cacheDir, cacheFileName)
+        return File(cacheDir, "$baseName.$extension")
     }
 }
 
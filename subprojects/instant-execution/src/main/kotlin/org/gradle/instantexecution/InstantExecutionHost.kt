@@ -44,6 +44,8 @@ import org.gradle.initialization.TaskExecutionPreparer
 import org.gradle.internal.build.BuildState
 import org.gradle.internal.classpath.ClassPath
 import org.gradle.internal.file.PathToFileResolver
+import org.gradle.internal.hash.FileHasher
+import org.gradle.internal.hash.HashCode
 import org.gradle.internal.operations.BuildOperationCategory
 import org.gradle.internal.operations.BuildOperationContext
 import org.gradle.internal.operations.BuildOperationDescriptor
@@ -100,6 +102,23 @@ class InstantExecutionHost internal constructor(
     override fun getSystemProperty(propertyName: String) =
         startParameter.systemPropertiesArgs[propertyName]
 
+    override val systemPropertyArgs: Map<String, String>
+        get() = startParameter.systemPropertiesArgs
+
+    override val configurationInputFiles: Set<File>
+        get() = LinkedHashSet<File>().apply {
+            startParameter.allInitScripts.forEach { add(it.absoluteFile) }
+            add(File(rootDir, "settings.gradle").absoluteFile)
+            add(File(rootDir, "settings.gradle.kts").absoluteFile)
+            add(File(rootDir, "gradle.properties").absoluteFile)
+            add(File(startParameter.gradleUserHomeDir, "gradle.properties").absoluteFile)
+            gradle.rootProject.allprojects.forEach { add(it.buildFile.absoluteFile) }
+            addAll(service<InstantExecutionInputs>().scriptFiles)
+        }
+
+    override fun hashOf(file: File): HashCode =
+        service<FileHasher>().hash(file)
+
     override val requestedTaskNames: List<String> = startParameter.taskNames
 
     override val rootDir: File = startParameter.currentDir
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.instantexecution
+
+import groovy.lang.Script
+import org.gradle.groovy.scripts.ScriptExecutionListener
+import org.gradle.groovy.scripts.ScriptSource
+import org.gradle.internal.event.ListenerManager
+import org.gradle.internal.service.ServiceRegistration
+
+import java.io.File
+import java.util.concurrent.ConcurrentHashMap
+
+
+/**
+ * Records the script files loaded while configuring the build, so that they can be checked
+ * for changes before reusing the instant execution cache.
+ */
+class InstantExecutionInputs : ScriptExecutionListener {
+
+    private
+    val loadedScriptFiles = ConcurrentHashMap.newKeySet<File>()
+
+    val scriptFiles: Set<File>
+        get() = loadedScriptFiles
+
+    override fun scriptClassLoaded(source: ScriptSource, scriptClass: Class<out Script>) {
+        source.resource.location.file?.let {
+            loadedScriptFiles.add(it.absoluteFile)
+        }
+    }
+}
+
+
+internal
+object InstantExecutionBuildServices {
+
+    @Suppress("unused")
+    fun createInstantExecutionInputs(): InstantExecutionInputs =
+        InstantExecutionInputs()
+
+    /**
+     * Registers the inputs listener as soon as the build scope is created, so that it sees the scripts run while configuring the build.
+     */
+    @Suppress("unused")
+    fun configure(registration: ServiceRegistration, listenerManager: ListenerManager, inputs: InstantExecutionInputs) {
+        listenerManager.addListener(inputs)
+    }
+}
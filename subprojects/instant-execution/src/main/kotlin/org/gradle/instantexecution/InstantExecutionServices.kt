@@ -22,6 +22,10 @@ import org.gradle.internal.service.scopes.AbstractPluginServiceRegistry
 
 class InstantExecutionServices : AbstractPluginServiceRegistry() {
 
+    override fun registerBuildServices(registration: ServiceRegistration) {
+        registration.addProvider(InstantExecutionBuildServices)
+    }
+
     override fun registerGradleServices(registration: ServiceRegistration) {
         registration.add(InstantExecutionHost::class.java)
         registration.add(DefaultInstantExecution::class.java)
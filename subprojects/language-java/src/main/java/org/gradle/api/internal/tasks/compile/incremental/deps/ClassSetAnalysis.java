@@ -23,6 +23,8 @@ import it.unimi.dsi.fastutil.ints.IntSet;
 import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessingData;
 import org.gradle.api.internal.tasks.compile.incremental.processing.GeneratedResource;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -110,8 +112,8 @@ public class ClassSetAnalysis {
 
         Set<String> resultClasses = new HashSet<String>();
         Set<GeneratedResource> resultResources = new HashSet<GeneratedResource>(resourcesDependingOnAllOthers);
-        recurseDependentClasses(new HashSet<String>(), resultClasses, resultResources, deps.getDependentClasses());
-        recurseDependentClasses(new HashSet<String>(), resultClasses, resultResources, classesDependingOnAllOthers);
+        collectDependentClasses(new HashSet<String>(), resultClasses, resultResources, deps.getDependentClasses());
+        collectDependentClasses(new HashSet<String>(), resultClasses, resultResources, classesDependingOnAllOthers);
         resultClasses.remove(className);
 
         return DependentsSet.dependents(resultClasses, resultResources);
@@ -126,11 +128,17 @@ public class ClassSetAnalysis {
     }
 
     /**
-     * Recursively accumulate dependent classes and resources.  Dependent classes discovered can themselves be used to query
+     * Transitively accumulate dependent classes and resources.  Dependent classes discovered can themselves be used to query
      * further dependents, while resources are just data accumulated along the way.
+     * Uses a work queue instead of recursion, so long dependency chains in large source sets cannot overflow the stack.
      */
-    private void recurseDependentClasses(Set<String> visitedClasses, Set<String> resultClasses, Set<GeneratedResource> resultResources, Iterable<String> dependentClasses) {
+    private void collectDependentClasses(Set<String> visitedClasses, Set<String> resultClasses, Set<GeneratedResource> resultResources, Iterable<String> dependentClasses) {
+        Deque<String> queue = new ArrayDeque<String>();
         for (String d : dependentClasses) {
+            queue.add(d);
+        }
+        while (!queue.isEmpty()) {
+            String d = queue.removeFirst();
             if (!visitedClasses.add(d)) {
                 continue;
             }
@@ -140,7 +148,7 @@ public class ClassSetAnalysis {
             DependentsSet currentDependents = getDependents(d);
             if (!currentDependents.isDependencyToAll()) {
                 resultResources.addAll(currentDependents.getDependentResources());
-                recurseDependentClasses(visitedClasses, resultClasses, resultResources, currentDependents.getDependentClasses());
+                queue.addAll(currentDependents.getDependentClasses());
             }
         }
     }
@@ -29,7 +29,9 @@ import org.gradle.internal.serialize.Encoder;
 import org.gradle.internal.serialize.IntSetSerializer;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -89,9 +91,9 @@ public class ClassSetAnalysisData {
 
         @Override
         public ClassSetAnalysisData read(Decoder decoder) throws Exception {
-            Map<Integer, String> classNameMap = new HashMap<Integer, String>();
-
             int count = decoder.readSmallInt();
+            List<String> classNameMap = new ArrayList<String>(count);
+
             ImmutableSet.Builder<String> classes = ImmutableSet.builder();
             for (int i = 0; i < count; i++) {
                 classes.add(readClassName(decoder, classNameMap));
@@ -140,7 +142,7 @@ public class ClassSetAnalysisData {
             encoder.writeNullableString(value.fullRebuildCause);
         }
 
-        private DependentsSet readDependentsSet(Decoder decoder, Map<Integer, String> classNameMap) throws IOException {
+        private DependentsSet readDependentsSet(Decoder decoder, List<String> classNameMap) throws IOException {
             byte b = decoder.readByte();
             if (b == 1) {
                 return DependentsSet.dependencyToAll(decoder.readNullableString());
@@ -166,15 +168,17 @@ public class ClassSetAnalysisData {
             }
         }
 
-        private String readClassName(Decoder decoder, Map<Integer, String> classNameMap) throws IOException {
+        /**
+         * Class names are written once and then referred to by their index in the order they were first written.
+         */
+        private String readClassName(Decoder decoder, List<String> classNameMap) throws IOException {
             int id = decoder.readSmallInt();
             if (id == 0) {
-                id = decoder.readSmallInt();
                 String className = interner.intern(decoder.readString());
-                classNameMap.put(id, className);
+                classNameMap.add(className);
                 return className;
             }
-            return classNameMap.get(id);
+            return classNameMap.get(id - 1);
         }
 
         private void writeClassName(String className, Map<String, Integer> classIdMap, Encoder encoder) throws IOException {
@@ -183,7 +187,6 @@ public class ClassSetAnalysisData {
                 id = classIdMap.size() + 1;
                 classIdMap.put(className, id);
                 encoder.writeSmallInt(0);
-                encoder.writeSmallInt(id);
                 encoder.writeString(className);
             } else {
                 encoder.writeSmallInt(id);
@@ -57,4 +57,40 @@ class ClassSetAnalysisDataSerializerTest extends Specification {
         read.classesToConstants == [C: [1,2] as Set, D: [] as Set]
         read.fullRebuildCause == "Because"
     }
+
+    def "writes each class name once and reads back references to it"() {
+        def classes = (1..300).collect { "org.gradle.Class$it".toString() }
+        def dependents = [:]
+        classes.eachWithIndex { name, i ->
+            dependents[name] = i % 10 == 0 ? dependencyToAll("Class $i changed") : dependentClasses(classes[(i + 1) % 300], classes[(i * 7) % 300])
+        }
+        def data = new ClassSetAnalysisData(classes as Set, dependents, [(classes[299]): new IntOpenHashSet([3]) as IntSet], null)
+
+        when:
+        def bytes = write(data)
+        ClassSetAnalysisData read = serializer.read(new InputStreamBackedDecoder(new ByteArrayInputStream(bytes)))
+
+        then:
+        read.classes == data.classes
+        read.dependents.keySet() == data.dependents.keySet()
+        classes.each {
+            assert read.dependents[it].dependencyToAll == data.dependents[it].dependencyToAll
+            assert read.dependents[it].dependentClasses == data.dependents[it].dependentClasses
+            assert read.dependents[it].description == data.dependents[it].description
+        }
+        read.classesToConstants == [(classes[299]): [3] as Set]
+        read.fullRebuildCause == null
+
+        and:
+        def content = new String(bytes, "UTF-8")
+        content.count("org.gradle.Class") == 300
+    }
+
+    private byte[] write(ClassSetAnalysisData data) {
+        def os = new ByteArrayOutputStream()
+        def encoder = new OutputStreamBackedEncoder(os)
+        serializer.write(encoder, data)
+        encoder.flush()
+        return os.toByteArray()
+    }
 }
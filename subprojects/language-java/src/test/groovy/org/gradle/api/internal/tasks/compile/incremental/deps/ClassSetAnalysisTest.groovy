@@ -101,6 +101,16 @@ class ClassSetAnalysisTest extends Specification {
         deps.dependentClasses == [] as Set
     }
 
+    def "handles long dependency chains"() {
+        def dependents = (0..<20000).collectEntries { ["C$it".toString(), dependentClasses("C${it + 1}".toString())] }
+        def a = analysis(dependents)
+        def deps = a.getRelevantDependents("C0", IntSets.EMPTY_SET)
+
+        expect:
+        deps.dependentClasses.size() == 20000
+        deps.dependentClasses.contains("C20000")
+    }
+
     def "handles dependency cycles"() {
         def a = analysis([
             "Foo": dependentClasses("Bar"),
@@ -26,7 +26,6 @@ import org.gradle.api.internal.tasks.properties.LifecycleAwareValue;
 import org.gradle.api.provider.Provider;
 import org.gradle.cache.PersistentStateCache;
 import org.gradle.internal.operations.BuildOperationExecutor;
-import org.gradle.internal.snapshot.FileSystemSnapshotter;
 import org.gradle.language.base.internal.compile.Compiler;
 import org.gradle.language.nativeplatform.internal.Expression;
 import org.gradle.language.nativeplatform.internal.IncludeDirectives;
@@ -43,30 +42,29 @@ import java.util.Map;
 import java.util.Set;
 
 public class DefaultIncrementalCompilerBuilder implements IncrementalCompilerBuilder {
-    private final FileSystemSnapshotter fileSystemSnapshotter;
     private final CompilationStateCacheFactory compilationStateCacheFactory;
     private final CSourceParser sourceParser;
     private final DirectoryFileTreeFactory directoryFileTreeFactory;
     private final TaskFileVarFactory fileVarFactory;
     private final BuildOperationExecutor buildOperationExecutor;
+    private final IncludeAnalysisCache includeAnalysisCache;
 
-    public DefaultIncrementalCompilerBuilder(FileSystemSnapshotter fileSystemSnapshotter, CompilationStateCacheFactory compilationStateCacheFactory, CSourceParser sourceParser, DirectoryFileTreeFactory directoryFileTreeFactory, TaskFileVarFactory fileVarFactory, BuildOperationExecutor buildOperationExecutor) {
-        this.fileSystemSnapshotter = fileSystemSnapshotter;
+    public DefaultIncrementalCompilerBuilder(CompilationStateCacheFactory compilationStateCacheFactory, CSourceParser sourceParser, DirectoryFileTreeFactory directoryFileTreeFactory, TaskFileVarFactory fileVarFactory, BuildOperationExecutor buildOperationExecutor, IncludeAnalysisCache includeAnalysisCache) {
         this.compilationStateCacheFactory = compilationStateCacheFactory;
         this.sourceParser = sourceParser;
         this.directoryFileTreeFactory = directoryFileTreeFactory;
         this.fileVarFactory = fileVarFactory;
         this.buildOperationExecutor = buildOperationExecutor;
+        this.includeAnalysisCache = includeAnalysisCache;
     }
 
     @Override
     public IncrementalCompiler newCompiler(TaskInternal task, FileCollection sourceFiles, FileCollection includeDirs, Map<String, String> macros, Provider<Boolean> importAware) {
-        return new StateCollectingIncrementalCompiler(task, includeDirs, sourceFiles, macros, fileSystemSnapshotter, compilationStateCacheFactory, sourceParser, directoryFileTreeFactory, fileVarFactory, buildOperationExecutor, importAware);
+        return new StateCollectingIncrementalCompiler(task, includeDirs, sourceFiles, macros, compilationStateCacheFactory, sourceParser, directoryFileTreeFactory, fileVarFactory, buildOperationExecutor, importAware, includeAnalysisCache);
     }
 
     private static class StateCollectingIncrementalCompiler implements IncrementalCompiler, MinimalFileSet, LifecycleAwareValue {
         private final Map<String, String> macros;
-        private final FileSystemSnapshotter fileSystemSnapshotter;
         private final CompilationStateCacheFactory compilationStateCacheFactory;
         private final CSourceParser sourceParser;
         private final DirectoryFileTreeFactory directoryFileTreeFactory;
@@ -77,21 +75,22 @@ public class DefaultIncrementalCompilerBuilder implements IncrementalCompilerBui
         private final FileCollection sourceFiles;
         private final FileCollection headerFilesCollection;
         private final Provider<Boolean> importAware;
+        private final IncludeAnalysisCache includeAnalysisCache;
         private PersistentStateCache<CompilationState> compileStateCache;
         private IncrementalCompilation incrementalCompilation;
 
-        StateCollectingIncrementalCompiler(TaskInternal task, FileCollection includeDirs, FileCollection sourceFiles, Map<String, String> macros, FileSystemSnapshotter fileSystemSnapshotter, CompilationStateCacheFactory compilationStateCacheFactory, CSourceParser sourceParser, DirectoryFileTreeFactory directoryFileTreeFactory, TaskFileVarFactory fileVarFactory, BuildOperationExecutor buildOperationExecutor, Provider<Boolean> importAware) {
+        StateCollectingIncrementalCompiler(TaskInternal task, FileCollection includeDirs, FileCollection sourceFiles, Map<String, String> macros, CompilationStateCacheFactory compilationStateCacheFactory, CSourceParser sourceParser, DirectoryFileTreeFactory directoryFileTreeFactory, TaskFileVarFactory fileVarFactory, BuildOperationExecutor buildOperationExecutor, Provider<Boolean> importAware, IncludeAnalysisCache includeAnalysisCache) {
             this.taskOutputs = task.getOutputs();
             this.taskPath = task.getPath();
             this.includeDirs = includeDirs;
             this.sourceFiles = sourceFiles;
             this.macros = macros;
-            this.fileSystemSnapshotter = fileSystemSnapshotter;
             this.compilationStateCacheFactory = compilationStateCacheFactory;
             this.sourceParser = sourceParser;
             this.directoryFileTreeFactory = directoryFileTreeFactory;
             this.buildOperationExecutor = buildOperationExecutor;
             this.importAware = importAware;
+            this.includeAnalysisCache = includeAnalysisCache;
             headerFilesCollection = fileVarFactory.newCalculatedInputFileCollection(task, this, sourceFiles, includeDirs);
         }
 
@@ -107,10 +106,10 @@ public class DefaultIncrementalCompilerBuilder implements IncrementalCompilerBui
         public Set<File> getFiles() {
             List<File> includeRoots = ImmutableList.copyOf(includeDirs);
             compileStateCache = compilationStateCacheFactory.create(taskPath);
-            DefaultSourceIncludesParser sourceIncludesParser = new DefaultSourceIncludesParser(sourceParser, importAware.get());
-            DefaultSourceIncludesResolver dependencyParser = new DefaultSourceIncludesResolver(includeRoots, fileSystemSnapshotter);
+            boolean isImportAware = importAware.get();
+            DefaultSourceIncludesParser sourceIncludesParser = new DefaultSourceIncludesParser(sourceParser, isImportAware);
             IncludeDirectives includeDirectives = directivesForMacros(macros);
-            IncrementalCompileFilesFactory incrementalCompileFilesFactory = new IncrementalCompileFilesFactory(includeDirectives, sourceIncludesParser, dependencyParser, fileSystemSnapshotter);
+            IncrementalCompileFilesFactory incrementalCompileFilesFactory = includeAnalysisCache.getFilesFactory(includeRoots, macros, includeDirectives, sourceIncludesParser, isImportAware);
             IncrementalCompileProcessor incrementalCompileProcessor = new IncrementalCompileProcessor(compileStateCache, incrementalCompileFilesFactory, buildOperationExecutor);
 
             incrementalCompilation = incrementalCompileProcessor.processSourceFiles(sourceFiles.getFiles());
@@ -16,6 +16,7 @@
 package org.gradle.language.nativeplatform.internal.incremental;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.Sets;
 import org.gradle.internal.file.FileType;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.snapshot.FileSystemSnapshotter;
@@ -33,17 +34,18 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
     private static final MissingIncludeFile MISSING_INCLUDE_FILE = new MissingIncludeFile();
     private final FileSystemSnapshotter fileSystemSnapshotter;
-    private final Map<File, DirectoryContents> includeRoots = new HashMap<File, DirectoryContents>();
+    private final Map<File, DirectoryContents> includeRoots = new ConcurrentHashMap<File, DirectoryContents>();
+    private final Set<File> relativeSearchDirectories = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
     private final FixedIncludePath includePath;
 
     public DefaultSourceIncludesResolver(List<File> includePaths, FileSystemSnapshotter fileSystemSnapshotter) {
@@ -257,6 +259,13 @@ public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
         return path.searchForDependency(includePath, sourceFile != null);
     }
 
+    /**
+     * Returns the directories that have been searched for include files so far, including those referenced by include paths containing '..'.
+     */
+    public Set<File> getSearchDirectories() {
+        return Sets.union(includeRoots.keySet(), relativeSearchDirectories);
+    }
+
     private DirectoryContents toDir(File includeDir) {
         DirectoryContents directoryContents = includeRoots.get(includeDir);
         if (directoryContents == null) {
@@ -302,7 +311,7 @@ public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
 
     private static class FixedIncludePath extends IncludePath {
         private final List<DirectoryContents> directories;
-        private final Map<String, CachedIncludeFile> cachedLookups = new HashMap<String, CachedIncludeFile>();
+        private final Map<String, CachedIncludeFile> cachedLookups = new ConcurrentHashMap<String, CachedIncludeFile>();
 
         FixedIncludePath(List<DirectoryContents> directories) {
             this.directories = directories;
@@ -337,7 +346,7 @@ public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
 
     private class DirectoryContents {
         private final File searchDir;
-        private final Map<String, CachedIncludeFile> contents = new HashMap<String, CachedIncludeFile>();
+        private final Map<String, CachedIncludeFile> contents = new ConcurrentHashMap<String, CachedIncludeFile>();
 
         DirectoryContents(File searchDir) {
             this.searchDir = searchDir;
@@ -350,6 +359,9 @@ public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
             }
 
             File candidate = new File(searchDir, includePath);
+            if (includePath.contains("..")) {
+                relativeSearchDirectories.add(candidate.getParentFile());
+            }
             HashCode contentHash = fileSystemSnapshotter.getRegularFileContentHash(candidate);
             includeFile = contentHash != null ? new SystemIncludeFile(candidate, includePath, contentHash) : MISSING_INCLUDE_FILE;
             contents.put(includePath, includeFile);
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.language.nativeplatform.internal.incremental;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import org.gradle.internal.event.ListenerManager;
+import org.gradle.internal.execution.OutputChangeListener;
+import org.gradle.internal.snapshot.FileSystemSnapshotter;
+import org.gradle.language.nativeplatform.internal.IncludeDirectives;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shares the analysis of header files between the native compile tasks of a build that use the same include path, macros and import handling.
+ *
+ * The results of locating include files and of visiting their include directives are reused by all compile tasks with the same configuration,
+ * until the outputs of some work in the build overlap the directories the include files were found in.
+ */
+public class IncludeAnalysisCache implements OutputChangeListener {
+    public static final String SHARE_INCLUDE_ANALYSIS_PROPERTY_NAME = "org.gradle.internal.native.headers.share";
+
+    private final FileSystemSnapshotter fileSystemSnapshotter;
+    private final boolean shareAnalysis;
+    private final ConcurrentMap<Key, IncludeAnalysis> analyses = new ConcurrentHashMap<Key, IncludeAnalysis>();
+
+    public IncludeAnalysisCache(ListenerManager listenerManager, FileSystemSnapshotter fileSystemSnapshotter) {
+        this.fileSystemSnapshotter = fileSystemSnapshotter;
+        this.shareAnalysis = Boolean.getBoolean(SHARE_INCLUDE_ANALYSIS_PROPERTY_NAME);
+        if (shareAnalysis) {
+            listenerManager.addListener(this);
+        }
+    }
+
+    /**
+     * Returns the factory to use to analyse the include graphs of source files compiled with the given configuration.
+     */
+    public IncrementalCompileFilesFactory getFilesFactory(List<File> includeRoots, Map<String, String> macros, IncludeDirectives initialIncludeDirectives, SourceIncludesParser sourceIncludesParser, boolean importAware) {
+        if (!shareAnalysis) {
+            return new IncludeAnalysis(includeRoots, initialIncludeDirectives, sourceIncludesParser).filesFactory;
+        }
+        Key key = new Key(includeRoots, macros, importAware);
+        IncludeAnalysis analysis = analyses.get(key);
+        if (analysis == null) {
+            analysis = new IncludeAnalysis(includeRoots, initialIncludeDirectives, sourceIncludesParser);
+            IncludeAnalysis existing = analyses.putIfAbsent(key, analysis);
+            if (existing != null) {
+                analysis = existing;
+            }
+        }
+        return analysis.filesFactory;
+    }
+
+    @Override
+    public void beforeOutputChange() {
+        analyses.clear();
+    }
+
+    @Override
+    public void beforeOutputChange(Iterable<String> affectedOutputPaths) {
+        for (Iterator<IncludeAnalysis> iterator = analyses.values().iterator(); iterator.hasNext();) {
+            if (iterator.next().isAffectedBy(affectedOutputPaths)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private class IncludeAnalysis {
+        private final DefaultSourceIncludesResolver resolver;
+        private final IncrementalCompileFilesFactory filesFactory;
+        private final Map<File, String> normalizedPaths = new ConcurrentHashMap<File, String>();
+
+        IncludeAnalysis(List<File> includeRoots, IncludeDirectives initialIncludeDirectives, SourceIncludesParser sourceIncludesParser) {
+            resolver = new DefaultSourceIncludesResolver(includeRoots, fileSystemSnapshotter);
+            filesFactory = new IncrementalCompileFilesFactory(initialIncludeDirectives, sourceIncludesParser, resolver, fileSystemSnapshotter);
+        }
+
+        /**
+         * Checks whether any of the given paths is in, or contains, a directory that was searched for include files or that contains a visited file.
+         */
+        boolean isAffectedBy(Iterable<String> affectedOutputPaths) {
+            for (String affectedPath : affectedOutputPaths) {
+                if (isAffectedBy(affectedPath, resolver.getSearchDirectories()) || isAffectedBy(affectedPath, filesFactory.getVisitedDirectories())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isAffectedBy(String affectedPath, Set<File> directories) {
+            for (File directory : directories) {
+                String directoryPath = normalizedPath(directory);
+                if (isSameOrNested(affectedPath, directoryPath) || isSameOrNested(directoryPath, affectedPath)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private String normalizedPath(File directory) {
+            String path = normalizedPaths.get(directory);
+            if (path == null) {
+                path = directory.toPath().toAbsolutePath().normalize().toString();
+                normalizedPaths.put(directory, path);
+            }
+            return path;
+        }
+
+        private boolean isSameOrNested(String path, String parent) {
+            return path.startsWith(parent) && (path.length() == parent.length() || path.charAt(parent.length()) == File.separatorChar);
+        }
+    }
+
+    private static class Key {
+        private final List<File> includeRoots;
+        private final Map<String, String> macros;
+        private final boolean importAware;
+
+        Key(List<File> includeRoots, Map<String, String> macros, boolean importAware) {
+            this.includeRoots = ImmutableList.copyOf(includeRoots);
+            this.macros = new HashMap<String, String>(macros);
+            this.importAware = importAware;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key other = (Key) o;
+            return importAware == other.importAware && includeRoots.equals(other.includeRoots) && macros.equals(other.macros);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(includeRoots, macros, importAware);
+        }
+    }
+}
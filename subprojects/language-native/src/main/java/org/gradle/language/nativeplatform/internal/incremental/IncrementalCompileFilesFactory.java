@@ -36,6 +36,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class IncrementalCompileFilesFactory {
 
@@ -47,6 +49,9 @@ public class IncrementalCompileFilesFactory {
     private final SourceIncludesResolver sourceIncludesResolver;
     private final FileSystemSnapshotter fileSystemSnapshotter;
     private final boolean ignoreUnresolvedHeadersInDependencies;
+    // Shared by all source processors created by this factory
+    private final ConcurrentMap<File, FileDetails> visitedFiles = new ConcurrentHashMap<File, FileDetails>();
+    private final Set<File> visitedDirectories = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
 
     public IncrementalCompileFilesFactory(IncludeDirectives initialIncludeDirectives, SourceIncludesParser sourceIncludesParser, SourceIncludesResolver sourceIncludesResolver, FileSystemSnapshotter fileSystemSnapshotter) {
         this.initialIncludeDirectives = initialIncludeDirectives;
@@ -60,13 +65,22 @@ public class IncrementalCompileFilesFactory {
         return new DefaultIncrementalCompileSourceProcessor(previousCompileState);
     }
 
+    /**
+     * Returns the directories containing the files whose include directives have been visited so far.
+     */
+    public Set<File> getVisitedDirectories() {
+        return visitedDirectories;
+    }
+
+    /**
+     * Source files may be processed concurrently. The details of visited files are shared between the source files being processed, and with other processors created by this factory.
+     */
     private class DefaultIncrementalCompileSourceProcessor implements IncrementalCompileSourceProcessor {
         private final CompilationState previous;
         private final BuildableCompilationState current = new BuildableCompilationState();
-        private final List<File> toRecompile = new ArrayList<File>();
-        private final Set<File> existingHeaders = new HashSet<File>();
-        private final Map<File, FileDetails> visitedFiles = new HashMap<File, FileDetails>();
-        private boolean hasUnresolvedHeaders;
+        private final List<File> toRecompile = Collections.synchronizedList(new ArrayList<File>());
+        private final Set<File> existingHeaders = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+        private volatile boolean hasUnresolvedHeaders;
 
         DefaultIncrementalCompileSourceProcessor(CompilationState previousCompileState) {
             this.previous = previousCompileState == null ? new CompilationState() : previousCompileState;
@@ -163,10 +177,13 @@ public class IncrementalCompileFilesFactory {
 
         private FileVisitResult visitFile(File file, HashCode newHash, CollectingMacroLookup visibleMacros, Set<HashCode> visited, Set<File> existingHeaders) {
             FileDetails fileDetails = visitedFiles.get(file);
-            if (fileDetails != null && fileDetails.results != null) {
+            FileVisitResult reusableResult = fileDetails != null ? fileDetails.results : null;
+            if (reusableResult != null) {
                 // A file that we can safely reuse the result for
-                visibleMacros.append(fileDetails.results);
-                return fileDetails.results;
+                visibleMacros.append(reusableResult);
+                // The result may have been calculated by another processor, so collect the headers it includes
+                reusableResult.collectIncludedFilesInto(existingHeaders);
+                return reusableResult;
             }
 
             if (!visited.add(newHash)) {
@@ -177,7 +194,12 @@ public class IncrementalCompileFilesFactory {
             if (fileDetails == null) {
                 IncludeDirectives includeDirectives = sourceIncludesParser.parseIncludes(file);
                 fileDetails = new FileDetails(includeDirectives);
-                visitedFiles.put(file, fileDetails);
+                FileDetails existing = visitedFiles.putIfAbsent(file, fileDetails);
+                if (existing != null) {
+                    fileDetails = existing;
+                } else {
+                    visitedDirectories.add(file.getParentFile());
+                }
             }
 
             CollectingMacroLookup includedFileDirectives = new CollectingMacroLookup();
@@ -242,7 +264,7 @@ public class IncrementalCompileFilesFactory {
         final IncludeDirectives directives;
         // Non-null when the result of visiting this file can be reused
         @Nullable
-        FileVisitResult results;
+        volatile FileVisitResult results;
 
         FileDetails(IncludeDirectives directives) {
             this.directives = directives;
@@ -284,6 +306,14 @@ public class IncrementalCompileFilesFactory {
             }
         }
 
+        void collectIncludedFilesInto(Set<File> files) {
+            for (FileVisitResult include : included) {
+                if (files.add(include.file)) {
+                    include.collectIncludedFilesInto(files);
+                }
+            }
+        }
+
         void collectFilesInto(Collection<IncludeFileEdge> files, Set<File> seen) {
             if (includeDirectives != null && seen.add(file)) {
                 files.addAll(edges);
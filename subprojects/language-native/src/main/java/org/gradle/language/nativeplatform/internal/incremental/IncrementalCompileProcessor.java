@@ -15,24 +15,36 @@
  */
 package org.gradle.language.nativeplatform.internal.incremental;
 
+import org.gradle.api.Action;
 import org.gradle.cache.PersistentStateCache;
 import org.gradle.internal.operations.BuildOperationContext;
 import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
 import org.gradle.internal.operations.CallableBuildOperation;
 import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.RunnableBuildOperation;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class IncrementalCompileProcessor {
+    public static final String PARALLEL_HEADER_ANALYSIS_PROPERTY_NAME = "org.gradle.internal.native.headers.parallel";
+    private static final int SOURCE_FILES_PER_BATCH = 20;
+
     private final PersistentStateCache<CompilationState> previousCompileStateCache;
     private final IncrementalCompileFilesFactory incrementalCompileFilesFactory;
     private final BuildOperationExecutor buildOperationExecutor;
+    private final boolean parallel;
 
     public IncrementalCompileProcessor(PersistentStateCache<CompilationState> previousCompileStateCache, IncrementalCompileFilesFactory incrementalCompileFilesFactory, BuildOperationExecutor buildOperationExecutor) {
         this.previousCompileStateCache = previousCompileStateCache;
         this.incrementalCompileFilesFactory = incrementalCompileFilesFactory;
         this.buildOperationExecutor = buildOperationExecutor;
+        this.parallel = Boolean.getBoolean(PARALLEL_HEADER_ANALYSIS_PROPERTY_NAME);
     }
 
     public IncrementalCompilation processSourceFiles(final Collection<File> sourceFiles) {
@@ -41,6 +53,9 @@ public class IncrementalCompileProcessor {
             public IncrementalCompilation call(BuildOperationContext context) {
                 CompilationState previousCompileState = previousCompileStateCache.get();
                 IncrementalCompileSourceProcessor processor = incrementalCompileFilesFactory.files(previousCompileState);
+                if (parallel && sourceFiles.size() > SOURCE_FILES_PER_BATCH) {
+                    return processInParallel(processor, sourceFiles);
+                }
                 for (File sourceFile : sourceFiles) {
                     processor.processSource(sourceFile);
                 }
@@ -69,4 +84,57 @@ public class IncrementalCompileProcessor {
         });
     }
 
+    /**
+     * Processes the source files concurrently, sharing the analysis of the header files between them.
+     * The source files to recompile are listed in the same order as when processed sequentially.
+     */
+    private IncrementalCompilation processInParallel(final IncrementalCompileSourceProcessor processor, final Collection<File> sourceFiles) {
+        buildOperationExecutor.runAll(new Action<BuildOperationQueue<ProcessSourceFiles>>() {
+            @Override
+            public void execute(BuildOperationQueue<ProcessSourceFiles> queue) {
+                List<File> batch = new ArrayList<File>(SOURCE_FILES_PER_BATCH);
+                for (File sourceFile : sourceFiles) {
+                    batch.add(sourceFile);
+                    if (batch.size() == SOURCE_FILES_PER_BATCH) {
+                        queue.add(new ProcessSourceFiles(processor, batch));
+                        batch = new ArrayList<File>(SOURCE_FILES_PER_BATCH);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    queue.add(new ProcessSourceFiles(processor, batch));
+                }
+            }
+        });
+        IncrementalCompilation result = processor.getResult();
+        Set<File> recompile = new HashSet<File>(result.getRecompile());
+        List<File> orderedRecompile = new ArrayList<File>(recompile.size());
+        for (File sourceFile : sourceFiles) {
+            if (recompile.contains(sourceFile)) {
+                orderedRecompile.add(sourceFile);
+            }
+        }
+        return new DefaultIncrementalCompilation(result.getFinalState(), orderedRecompile, result.getRemoved(), result.getExistingHeaders(), result.isUnresolvedHeaders());
+    }
+
+    private static class ProcessSourceFiles implements RunnableBuildOperation {
+        private final IncrementalCompileSourceProcessor processor;
+        private final List<File> sourceFiles;
+
+        ProcessSourceFiles(IncrementalCompileSourceProcessor processor, List<File> sourceFiles) {
+            this.processor = processor;
+            this.sourceFiles = sourceFiles;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            for (File sourceFile : sourceFiles) {
+                processor.processSource(sourceFile);
+            }
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Process " + sourceFiles.size() + " source files");
+        }
+    }
 }
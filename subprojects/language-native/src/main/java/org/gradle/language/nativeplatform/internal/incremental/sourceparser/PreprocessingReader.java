@@ -24,6 +24,9 @@ import java.io.Reader;
  */
 public class PreprocessingReader {
     private final Reader reader;
+    private final char[] content;
+    private final int length;
+    private int pos;
     /**
      * The read-ahead characters, used for reading ahead up to 2 characters and pushing back into stream.
      * A value of -1 indicates that no character is in the buffer.
@@ -41,7 +44,20 @@ public class PreprocessingReader {
     private boolean quoted;
 
     public PreprocessingReader(Reader reader) {
+        this(reader, null, 0);
+    }
+
+    /**
+     * Reads from the given characters, which avoids the overhead of reading each character from a {@link Reader}.
+     */
+    public PreprocessingReader(char[] content, int length) {
+        this(null, content, length);
+    }
+
+    private PreprocessingReader(Reader reader, char[] content, int length) {
         this.reader = reader;
+        this.content = content;
+        this.length = length;
         readAheadChars[0] = -1;
         readAheadChars[1] = -1;
     }
@@ -71,6 +87,39 @@ public class PreprocessingReader {
         return read;
     }
 
+    /**
+     * Collects the next line from the filtered stream that starts with a '#' into the given buffer, skipping all other lines.
+     * Does not include the whitespace before the '#' or the line separators.
+     *
+     * @return true if such a line is available, false when end of stream reached.
+     */
+    public boolean readNextDirective(Appendable buffer) throws IOException {
+        while (true) {
+            int ch = read();
+            while (ch == 0 || (ch > 0 && ch != '\n' && ch != '\r' && Character.isWhitespace(ch))) {
+                ch = read();
+            }
+            if (ch == '#') {
+                buffer.append('#');
+                readNextLine(buffer);
+                return true;
+            }
+            // Not a directive, skip the rest of the line
+            while (ch >= 0 && ch != '\n' && ch != '\r') {
+                ch = read();
+            }
+            if (ch < 0) {
+                return false;
+            }
+            if (ch == '\r') {
+                int next = next();
+                if (next != '\n') {
+                    pushBack(next);
+                }
+            }
+        }
+    }
+
     /**
      * Returns the next character in the filtered stream:
      * <ul>
@@ -153,6 +202,9 @@ public class PreprocessingReader {
             return ch;
         }
 
+        if (content != null) {
+            return pos < length ? content[pos++] : -1;
+        }
         return reader.read();
     }
 
@@ -30,9 +30,12 @@ import org.gradle.language.nativeplatform.internal.MacroFunction;
 import javax.annotation.Nullable;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -47,23 +50,28 @@ import java.util.Set;
 public class RegexBackedCSourceParser implements CSourceParser {
     @Override
     public IncludeDirectives parseSource(File sourceFile) {
-        try (Reader fileReader = new FileReader(sourceFile)) {
-            return parseSource(fileReader);
+        try {
+            // Decode the whole file at once, using the same encoding as a FileReader
+            CharBuffer content = Charset.defaultCharset().decode(ByteBuffer.wrap(Files.readAllBytes(sourceFile.toPath())));
+            return parseSource(new PreprocessingReader(content.array(), content.limit()));
         } catch (Exception e) {
             throw new GradleException(String.format("Could not extract includes from source file %s.", sourceFile), e);
         }
     }
 
     protected IncludeDirectives parseSource(Reader sourceReader) throws IOException {
+        return parseSource(new PreprocessingReader(new BufferedReader(sourceReader)));
+    }
+
+    private IncludeDirectives parseSource(PreprocessingReader lineReader) throws IOException {
         Set<Include> includes = Sets.newLinkedHashSet();
         List<Macro> macros = Lists.newArrayList();
         List<MacroFunction> macroFunctions = Lists.newArrayList();
-        BufferedReader reader = new BufferedReader(sourceReader);
-        PreprocessingReader lineReader = new PreprocessingReader(reader);
         Buffer buffer = new Buffer();
         while (true) {
             buffer.reset();
-            if (!lineReader.readNextLine(buffer.value)) {
+            // Only lines that start with a '#' are collected, all other lines are skipped without being buffered
+            if (!lineReader.readNextDirective(buffer.value)) {
                 break;
             }
             buffer.consumeWhitespace();
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.language.nativeplatform.internal.incremental
+
+import org.gradle.internal.event.ListenerManager
+import org.gradle.internal.snapshot.impl.TestFileSnapshotter
+import org.gradle.language.nativeplatform.internal.IncludeDirectives
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
+import spock.lang.Specification
+
+class IncludeAnalysisCacheTest extends Specification {
+    @Rule
+    final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    @Rule
+    final SetSystemProperties systemProperties = new SetSystemProperties()
+
+    def listenerManager = Mock(ListenerManager)
+    def parser = Mock(SourceIncludesParser)
+    def includeDir = tmpDir.createDir("include")
+    def otherIncludeDir = tmpDir.createDir("other")
+
+    def "shares analysis between compile tasks with the same configuration"() {
+        def cache = createCache(true)
+
+        expect:
+        def factory = cache.getFilesFactory([includeDir], [A: "1"], IncludeDirectives.EMPTY, parser, false)
+        cache.getFilesFactory([includeDir], [A: "1"], IncludeDirectives.EMPTY, parser, false).is(factory)
+        !cache.getFilesFactory([includeDir], [A: "2"], IncludeDirectives.EMPTY, parser, false).is(factory)
+        !cache.getFilesFactory([includeDir, otherIncludeDir], [A: "1"], IncludeDirectives.EMPTY, parser, false).is(factory)
+        !cache.getFilesFactory([includeDir], [A: "1"], IncludeDirectives.EMPTY, parser, true).is(factory)
+    }
+
+    def "does not share analysis when not enabled"() {
+        def cache = createCache(false)
+
+        expect:
+        def factory = cache.getFilesFactory([includeDir], [:], IncludeDirectives.EMPTY, parser, false)
+        !cache.getFilesFactory([includeDir], [:], IncludeDirectives.EMPTY, parser, false).is(factory)
+    }
+
+    def "discards analysis when outputs overlap the include directories"() {
+        def cache = createCache(true)
+        def factory = cache.getFilesFactory([includeDir], [:], IncludeDirectives.EMPTY, parser, false)
+
+        when:
+        cache.beforeOutputChange([tmpDir.file("build/objs").absolutePath, otherIncludeDir.absolutePath])
+
+        then:
+        cache.getFilesFactory([includeDir], [:], IncludeDirectives.EMPTY, parser, false).is(factory)
+
+        when:
+        cache.beforeOutputChange([includeDir.file("generated.h").absolutePath])
+
+        then:
+        !cache.getFilesFactory([includeDir], [:], IncludeDirectives.EMPTY, parser, false).is(factory)
+    }
+
+    def "discards all analysis when the changed outputs are not known"() {
+        def cache = createCache(true)
+        def factory = cache.getFilesFactory([includeDir], [:], IncludeDirectives.EMPTY, parser, false)
+
+        when:
+        cache.beforeOutputChange()
+
+        then:
+        !cache.getFilesFactory([includeDir], [:], IncludeDirectives.EMPTY, parser, false).is(factory)
+    }
+
+    private IncludeAnalysisCache createCache(boolean shareAnalysis) {
+        System.setProperty(IncludeAnalysisCache.SHARE_INCLUDE_ANALYSIS_PROPERTY_NAME, String.valueOf(shareAnalysis))
+        new IncludeAnalysisCache(listenerManager, new TestFileSnapshotter())
+    }
+}
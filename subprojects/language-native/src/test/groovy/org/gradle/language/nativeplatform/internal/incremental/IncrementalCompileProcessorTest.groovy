@@ -17,9 +17,19 @@ package org.gradle.language.nativeplatform.internal.incremental
 
 
 import org.gradle.cache.PersistentStateCache
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.concurrent.ParallelismConfigurationManagerFixture
 import org.gradle.internal.hash.HashCode
+import org.gradle.internal.operations.BuildOperationListener
+import org.gradle.internal.operations.DefaultBuildOperationExecutor
+import org.gradle.internal.operations.DefaultBuildOperationIdFactory
+import org.gradle.internal.operations.DefaultBuildOperationQueueFactory
 import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.internal.progress.NoOpProgressLoggerFactory
+import org.gradle.internal.resources.DefaultResourceLockCoordinationService
 import org.gradle.internal.snapshot.impl.TestFileSnapshotter
+import org.gradle.internal.time.Clock
+import org.gradle.internal.work.DefaultWorkerLeaseService
 import org.gradle.language.nativeplatform.internal.Include
 import org.gradle.language.nativeplatform.internal.IncludeDirectives
 import org.gradle.language.nativeplatform.internal.incremental.sourceparser.TestIncludeParser
@@ -28,6 +38,7 @@ import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.gradle.util.UsesNativeServices
 import org.junit.Rule
 import spock.lang.Specification
+import spock.util.environment.RestoreSystemProperties
 
 import javax.annotation.Nullable
 
@@ -375,6 +386,63 @@ class IncrementalCompileProcessorTest extends Specification {
         result.unresolvedHeaders
     }
 
+    @RestoreSystemProperties
+    def "processes source files in parallel when enabled"() {
+        given:
+        def sources = (1..50).collect { sourceFile("source-${it}") }
+        sources.eachWithIndex { source, i ->
+            def deps = []
+            if (i % 2 == 0) {
+                deps << dep1
+            }
+            if (i % 3 == 0) {
+                deps << dep2
+            }
+            if (i % 5 == 0) {
+                deps << dep4
+            }
+            graph[source] = deps ?: [dep3]
+            parse(source)
+        }
+        [dep1, dep2, dep3, dep4].each { parse(it) }
+        dependencyResolver.unresolved(sources[7])
+        dependencyResolver.unresolved(sources[42])
+        def filesFactory = new IncrementalCompileFilesFactory(IncludeDirectives.EMPTY, includesParser, dependencyResolver, fileSystemSnapshotter)
+        def sequentialProcessor = new IncrementalCompileProcessor(stateCache, filesFactory, new TestBuildOperationExecutor())
+
+        def parallelismConfiguration = new ParallelismConfigurationManagerFixture(true, 4)
+        def workerLeaseService = new DefaultWorkerLeaseService(new DefaultResourceLockCoordinationService(), parallelismConfiguration)
+        def buildOperationExecutor = new DefaultBuildOperationExecutor(
+            Mock(BuildOperationListener), Mock(Clock), new NoOpProgressLoggerFactory(),
+            new DefaultBuildOperationQueueFactory(workerLeaseService), new DefaultExecutorFactory(), parallelismConfiguration, new DefaultBuildOperationIdFactory())
+        System.setProperty(IncrementalCompileProcessor.PARALLEL_HEADER_ANALYSIS_PROPERTY_NAME, "true")
+        def parallelProcessor = new IncrementalCompileProcessor(stateCache, filesFactory, buildOperationExecutor)
+        def workerLease = workerLeaseService.workerLease.start()
+
+        when:
+        def expected = sequentialProcessor.processSourceFiles(sources)
+        def result = parallelProcessor.processSourceFiles(sources)
+
+        then:
+        result.recompile == expected.recompile
+        result.removed == expected.removed
+        result.existingHeaders == expected.existingHeaders
+        result.unresolvedHeaders
+        result.unresolvedHeaders == expected.unresolvedHeaders
+        sources.each { source ->
+            def state = result.finalState.getState(source)
+            def expectedState = expected.finalState.getState(source)
+            assert state.hash == expectedState.hash
+            assert state.hasUnresolved == expectedState.hasUnresolved
+            assert state.edges == expectedState.edges
+        }
+        result.finalState.getState(sources[0]).edges*.includePath as Set == ["dep1", "dep2", "dep3", "dep4"] as Set
+
+        cleanup:
+        workerLease?.leaseFinish()
+        workerLeaseService?.stop()
+    }
+
     def checkCompile(Map<String, List<File>> args) {
         parseAndResolve()
         with(state) {
@@ -152,4 +152,45 @@ line comments.
         "inline comment" | "/* inline comment at the start */of the line" | " of the line"
         "line continuation" | "${BN} at the start of the content" | " at the start of the content"
     }
+
+    def "reads lines from characters"() {
+        expect:
+        def content = "line 1\r\nline /* comment */ 2".toCharArray()
+        def reader = new PreprocessingReader(content, content.length)
+        def result = new StringBuilder()
+        reader.readNextLine(result)
+        result.toString() == "line 1"
+
+        result.setLength(0)
+        reader.readNextLine(result)
+        result.toString() == "line  2"
+        !reader.readNextLine(result)
+    }
+
+    def "reads directive lines only"() {
+        expect:
+        def content = """
+int a; // # not a directive
+  #include <a.h>
+/* #include <b.h>
+*/ # define X 1
+"#include <c.h>"
+#import "d.h"""".replace('\n', eol).toCharArray()
+        def reader = new PreprocessingReader(content, content.length)
+        def result = new StringBuilder()
+        reader.readNextDirective(result)
+        result.toString() == "#include <a.h>"
+
+        result.setLength(0)
+        reader.readNextDirective(result)
+        result.toString() == "# define X 1"
+
+        result.setLength(0)
+        reader.readNextDirective(result)
+        result.toString() == '#import "d.h"'
+        !reader.readNextDirective(result)
+
+        where:
+        eol << ['\n', '\r', '\r\n']
+    }
 }
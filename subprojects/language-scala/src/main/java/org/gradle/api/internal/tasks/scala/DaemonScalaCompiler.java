@@ -48,6 +48,16 @@ import java.io.File;
 import java.util.Arrays;
 
 public class DaemonScalaCompiler<T extends ScalaJavaJointCompileSpec> extends AbstractDaemonCompiler<T> {
+    /**
+     * When set, Scala compiler daemons are kept alive across builds, so that the compilers and analyses cached by Zinc
+     * inside the daemon are reused by later builds. Idle daemons are stopped when the system runs low on memory.
+     */
+    public static final String PERSISTENT_DAEMON_PROPERTY_NAME = "org.gradle.internal.scala.compiler.daemon.persistent";
+    /**
+     * The number of Zinc analyses cached by a persistent Scala compiler daemon.
+     */
+    public static final String PERSISTENT_DAEMON_ANALYSIS_CACHE_SIZE_PROPERTY_NAME = "org.gradle.internal.scala.compiler.daemon.analysis.cache.size";
+    private static final int DEFAULT_PERSISTENT_DAEMON_ANALYSIS_CACHE_SIZE = 50;
     private static final Iterable<String> SHARED_PACKAGES =
             Arrays.asList("scala", "com.typesafe.zinc", "xsbti", "com.sun.tools.javac", "sbt");
     private final Iterable<File> zincClasspath;
@@ -68,11 +78,19 @@ public class DaemonScalaCompiler<T extends ScalaJavaJointCompileSpec> extends Ab
         JavaForkOptions javaForkOptions = new BaseForkOptionsConverter(forkOptionsFactory).transform(mergeForkOptions(javaOptions, scalaOptions));
         javaForkOptions.setWorkingDir(daemonWorkingDir);
 
+        KeepAliveMode keepAliveMode = KeepAliveMode.SESSION;
+        if (Boolean.getBoolean(PERSISTENT_DAEMON_PROPERTY_NAME)) {
+            keepAliveMode = KeepAliveMode.DAEMON;
+            // Zinc reads its cache limits once, when the daemon starts
+            int analysisCacheSize = Integer.getInteger(PERSISTENT_DAEMON_ANALYSIS_CACHE_SIZE_PROPERTY_NAME, DEFAULT_PERSISTENT_DAEMON_ANALYSIS_CACHE_SIZE);
+            javaForkOptions.systemProperty(ZincScalaCompilerUtil.ZINC_ANALYSIS_CACHE_LIMIT_SYSTEM_PROPERTY, analysisCacheSize);
+        }
+
         return new DaemonForkOptionsBuilder(forkOptionsFactory)
             .javaForkOptions(javaForkOptions)
             .classpath(zincClasspath)
             .sharedPackages(SHARED_PACKAGES)
-            .keepAliveMode(KeepAliveMode.SESSION)
+            .keepAliveMode(keepAliveMode)
             .build();
     }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.scala
+
+import org.gradle.api.file.ProjectLayout
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.api.tasks.compile.CompileOptions
+import org.gradle.language.base.internal.compile.Compiler
+import org.gradle.language.scala.tasks.BaseScalaCompileOptions
+import org.gradle.util.SetSystemProperties
+import org.gradle.util.TestUtil
+import org.gradle.workers.internal.KeepAliveMode
+import org.gradle.workers.internal.WorkerDaemonFactory
+import org.junit.Rule
+import spock.lang.Specification
+
+class DaemonScalaCompilerTest extends Specification {
+    @Rule
+    SetSystemProperties systemProperties = new SetSystemProperties()
+
+    def spec = new DefaultScalaJavaJointCompileSpec()
+    def compiler = new DaemonScalaCompiler<ScalaJavaJointCompileSpec>(new File("daemon"), Compiler, [] as Object[], Stub(WorkerDaemonFactory), [new File("zinc.jar")], TestFiles.execFactory())
+
+    def setup() {
+        spec.compileOptions = new CompileOptions(Stub(ProjectLayout), TestUtil.objectFactory())
+        spec.scalaCompileOptions = new BaseScalaCompileOptions()
+    }
+
+    def "uses session scoped daemon by default"() {
+        when:
+        def options = compiler.toDaemonForkOptions(spec)
+
+        then:
+        options.keepAliveMode == KeepAliveMode.SESSION
+        !options.javaForkOptions.systemProperties.containsKey(ZincScalaCompilerUtil.ZINC_ANALYSIS_CACHE_LIMIT_SYSTEM_PROPERTY)
+    }
+
+    def "uses persistent daemon with default analysis cache limit when enabled"() {
+        given:
+        System.setProperty(DaemonScalaCompiler.PERSISTENT_DAEMON_PROPERTY_NAME, "true")
+
+        when:
+        def options = compiler.toDaemonForkOptions(spec)
+
+        then:
+        options.keepAliveMode == KeepAliveMode.DAEMON
+        options.javaForkOptions.systemProperties[ZincScalaCompilerUtil.ZINC_ANALYSIS_CACHE_LIMIT_SYSTEM_PROPERTY].toString() == "50"
+    }
+
+    def "uses configured analysis cache limit for persistent daemon"() {
+        given:
+        System.setProperty(DaemonScalaCompiler.PERSISTENT_DAEMON_PROPERTY_NAME, "true")
+        System.setProperty(DaemonScalaCompiler.PERSISTENT_DAEMON_ANALYSIS_CACHE_SIZE_PROPERTY_NAME, "10")
+
+        when:
+        def options = compiler.toDaemonForkOptions(spec)
+
+        then:
+        options.keepAliveMode == KeepAliveMode.DAEMON
+        options.javaForkOptions.systemProperties[ZincScalaCompilerUtil.ZINC_ANALYSIS_CACHE_LIMIT_SYSTEM_PROPERTY].toString() == "10"
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.launcher.daemon.client;
+
+import org.gradle.api.JavaVersion;
+import org.gradle.internal.classpath.ClassPath;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.jvm.JavaInfo;
+import org.gradle.internal.jvm.inspection.JvmVersionDetector;
+import org.gradle.util.GFileUtils;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculates the JVM arguments that let daemons share an archive of the class data of the Gradle runtime, when enabled.
+ *
+ * The first daemons started for a given JVM and class path write an archive of the classes they loaded when they stop, each to a file of its own.
+ * A later client publishes one of these archives under its final name, with an atomic rename, once it has not been modified for a while.
+ * Daemons started after that map the archive instead of loading, parsing and verifying these classes again, and never see a partially written archive.
+ * Requires Java 13 or later.
+ */
+public class DaemonClassDataSharing {
+    public static final String CLASS_DATA_SHARING_PROPERTY = "org.gradle.internal.daemon.cds";
+    private static final String ARCHIVE_EXTENSION = ".jsa";
+    private static final String DUMP_EXTENSION = ".jsa.tmp";
+    // An archive is written when its daemon exits, which takes much less than this
+    private static final long DUMP_COMPLETION_DELAY = TimeUnit.MINUTES.toMillis(1);
+
+    private final JvmVersionDetector versionDetector;
+
+    public DaemonClassDataSharing(JvmVersionDetector versionDetector) {
+        this.versionDetector = versionDetector;
+    }
+
+    public List<String> getJvmArgs(JavaInfo jvm, ClassPath classpath, File archiveDir) {
+        if (!Boolean.getBoolean(CLASS_DATA_SHARING_PROPERTY)) {
+            return Collections.emptyList();
+        }
+        // Dynamic archives are only supported by Java 13 and later
+        if (versionDetector.getJavaVersion(jvm).compareTo(JavaVersion.VERSION_12) <= 0) {
+            return Collections.emptyList();
+        }
+        String archiveName = archiveName(jvm, classpath);
+        File archive = new File(archiveDir, archiveName + ARCHIVE_EXTENSION);
+        if (!archive.isFile()) {
+            publishCompletedDumps(archiveDir, archiveName, archive);
+        }
+        if (archive.isFile()) {
+            return Collections.singletonList("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        }
+        GFileUtils.mkdirs(archiveDir);
+        File dump = new File(archiveDir, archiveName + "-" + UUID.randomUUID() + DUMP_EXTENSION);
+        return Collections.singletonList("-XX:ArchiveClassesAtExit=" + dump.getAbsolutePath());
+    }
+
+    private static void publishCompletedDumps(File archiveDir, final String archiveName, File archive) {
+        final long completedBefore = System.currentTimeMillis() - DUMP_COMPLETION_DELAY;
+        File[] completedDumps = archiveDir.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                String name = file.getName();
+                return name.startsWith(archiveName + "-") && name.endsWith(DUMP_EXTENSION) && file.lastModified() < completedBefore;
+            }
+        });
+        if (completedDumps == null) {
+            return;
+        }
+        for (File dump : completedDumps) {
+            if (!archive.isFile()) {
+                try {
+                    Files.move(dump.toPath(), archive.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                    continue;
+                } catch (IOException e) {
+                    // Another client published this or another dump first
+                }
+            }
+            GFileUtils.deleteQuietly(dump);
+        }
+    }
+
+    private static String archiveName(JavaInfo jvm, ClassPath classpath) {
+        // An archive can only be used by the JVM that created it, with the same class path
+        Hasher hasher = Hashing.newHasher();
+        File javaExecutable = jvm.getJavaExecutable();
+        hasher.putString(javaExecutable.getAbsolutePath());
+        hasher.putLong(javaExecutable.lastModified());
+        for (File file : classpath.getAsFiles()) {
+            hasher.putString(file.getAbsolutePath());
+            hasher.putLong(file.lastModified());
+        }
+        return hasher.hash().toString();
+    }
+}
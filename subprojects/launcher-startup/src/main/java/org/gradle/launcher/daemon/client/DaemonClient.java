@@ -36,6 +36,7 @@ import org.gradle.launcher.daemon.context.DaemonContext;
 import org.gradle.launcher.daemon.diagnostics.DaemonDiagnostics;
 import org.gradle.launcher.daemon.protocol.Build;
 import org.gradle.launcher.daemon.protocol.BuildEvent;
+import org.gradle.launcher.daemon.protocol.BuildEvents;
 import org.gradle.launcher.daemon.protocol.BuildStarted;
 import org.gradle.launcher.daemon.protocol.CloseInput;
 import org.gradle.launcher.daemon.protocol.DaemonUnavailable;
@@ -220,6 +221,10 @@ public class DaemonClient implements BuildActionExecuter<BuildActionParameters>
                     outputEventListener.onOutput(((OutputMessage) object).getEvent());
                 } else if (object instanceof BuildEvent) {
                     buildEventConsumer.dispatch(((BuildEvent) object).getPayload());
+                } else if (object instanceof BuildEvents) {
+                    for (Object event : ((BuildEvents) object).getPayloads()) {
+                        buildEventConsumer.dispatch(event);
+                    }
                 } else {
                     return object;
                 }
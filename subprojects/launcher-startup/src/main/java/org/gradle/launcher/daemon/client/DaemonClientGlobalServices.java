@@ -35,6 +35,10 @@ public class DaemonClientGlobalServices {
         return new JvmVersionValidator(jvmVersionDetector);
     }
 
+    DaemonClassDataSharing createDaemonClassDataSharing(JvmVersionDetector jvmVersionDetector) {
+        return new DaemonClassDataSharing(jvmVersionDetector);
+    }
+
     DaemonGreeter createDaemonGreeter(DocumentationRegistry documentationRegistry) {
         return new DaemonGreeter(documentationRegistry);
     }
@@ -48,6 +48,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.Thread.sleep;
 import static org.gradle.launcher.daemon.server.api.DaemonStateControl.State.Canceled;
@@ -60,6 +61,20 @@ public class DefaultDaemonConnector implements DaemonConnector {
     private static final Logger LOGGER = Logging.getLogger(DefaultDaemonConnector.class);
     public static final int DEFAULT_CONNECT_TIMEOUT = 30000;
     public static final int CANCELED_WAIT_TIMEOUT = 3000;
+    /**
+     * The maximum number of compatible daemons to run at the same time. When reached, builds wait for one of the
+     * compatible daemons to become idle instead of starting another one, so that they share its in-memory caches.
+     */
+    public static final String MAX_COMPATIBLE_DAEMONS_PROPERTY = "org.gradle.internal.daemon.max.compatible";
+    /**
+     * How long to wait, in milliseconds, for a busy daemon to become idle before starting a new daemon instead.
+     */
+    public static final String BUSY_WAIT_TIMEOUT_PROPERTY = "org.gradle.internal.daemon.busy.wait.timeout";
+    public static final int BUSY_WAIT_TIMEOUT = 60000;
+    /**
+     * How often to check that the busy daemons are still alive while waiting. A daemon that was killed can leave a busy entry behind in the registry.
+     */
+    private static final int BUSY_LIVENESS_CHECK_INTERVAL = 2000;
     private final DaemonRegistry daemonRegistry;
     protected final OutgoingConnector connector;
     private final DaemonStarter daemonStarter;
@@ -67,6 +82,7 @@ public class DefaultDaemonConnector implements DaemonConnector {
     private final ProgressLoggerFactory progressLoggerFactory;
     private final Serializer<Message> serializer;
     private long connectTimeout = DefaultDaemonConnector.DEFAULT_CONNECT_TIMEOUT;
+    private long busyWaitTimeout = Long.getLong(BUSY_WAIT_TIMEOUT_PROPERTY, BUSY_WAIT_TIMEOUT);
 
     public DefaultDaemonConnector(DaemonRegistry daemonRegistry, OutgoingConnector connector, DaemonStarter daemonStarter, DaemonStartListener startListener, ProgressLoggerFactory progressLoggerFactory, Serializer<Message> serializer) {
         this.serializer = serializer;
@@ -91,6 +107,14 @@ public class DefaultDaemonConnector implements DaemonConnector {
         return connectTimeout;
     }
 
+    public void setBusyWaitTimeout(long busyWaitTimeout) {
+        this.busyWaitTimeout = busyWaitTimeout;
+    }
+
+    public long getBusyWaitTimeout() {
+        return busyWaitTimeout;
+    }
+
     public DaemonRegistry getDaemonRegistry() {
         return daemonRegistry;
     }
@@ -128,6 +152,12 @@ public class DefaultDaemonConnector implements DaemonConnector {
             return connection;
         }
 
+        // Check to see if the maximum number of compatible daemons are running and wait for one of them to become idle
+        connection = connectToBusyDaemon(constraint);
+        if (connection != null) {
+            return connection;
+        }
+
         // No compatible daemons available - start a new daemon
         handleStopEvents(idleDaemons, busyDaemons);
         return startDaemon(constraint);
@@ -172,6 +202,68 @@ public class DefaultDaemonConnector implements DaemonConnector {
         return connection;
     }
 
+    private DaemonClientConnection connectToBusyDaemon(ExplainingSpec<DaemonContext> constraint) {
+        int maxCompatibleDaemons = Integer.getInteger(MAX_COMPATIBLE_DAEMONS_PROPERTY, 0);
+        if (maxCompatibleDaemons <= 0 || countCompatibleDaemons(daemonRegistry.getNotIdle(), constraint) < maxCompatibleDaemons) {
+            return null;
+        }
+        LOGGER.lifecycle("{} ({}={}). A new daemon will be started if none becomes available within {} seconds.", DaemonMessages.WAITING_ON_BUSY, MAX_COMPATIBLE_DAEMONS_PROPERTY, maxCompatibleDaemons, TimeUnit.MILLISECONDS.toSeconds(busyWaitTimeout));
+        ProgressLogger progressLogger = progressLoggerFactory.newOperation(DefaultDaemonConnector.class)
+            .start("Waiting for a busy Gradle Daemon", "Waiting for Daemon");
+        try {
+            DaemonClientConnection connection = null;
+            CountdownTimer timer = Time.startCountdownTimer(busyWaitTimeout);
+            CountdownTimer livenessTimer = Time.startCountdownTimer(BUSY_LIVENESS_CHECK_INTERVAL);
+            // Stop waiting when one of the busy daemons has stopped, so that a new daemon can be started instead
+            while (connection == null && countCompatibleDaemons(daemonRegistry.getNotIdle(), constraint) >= maxCompatibleDaemons) {
+                if (timer.hasExpired()) {
+                    LOGGER.lifecycle("No busy daemon became available within {} seconds. Starting a new daemon instead.", TimeUnit.MILLISECONDS.toSeconds(busyWaitTimeout));
+                    break;
+                }
+                if (livenessTimer.hasExpired()) {
+                    removeStoppedDaemons(daemonRegistry.getNotIdle(), constraint);
+                    livenessTimer = Time.startCountdownTimer(BUSY_LIVENESS_CHECK_INTERVAL);
+                    continue;
+                }
+                try {
+                    sleep(200);
+                    connection = connectToIdleDaemon(daemonRegistry.getIdle(), constraint);
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            }
+            return connection;
+        } finally {
+            progressLogger.completed();
+        }
+    }
+
+    /**
+     * Connects to each of the given compatible daemons, which removes the daemons that can no longer be reached from the registry.
+     */
+    private void removeStoppedDaemons(Collection<DaemonInfo> daemons, ExplainingSpec<DaemonContext> constraint) {
+        for (DaemonInfo daemon : daemons) {
+            if (!constraint.isSatisfiedBy(daemon.getContext())) {
+                continue;
+            }
+            try {
+                connectToDaemon(daemon, new CleanupOnStaleAddress(daemon, false)).stop();
+            } catch (ConnectException e) {
+                LOGGER.info("Busy daemon {} is no longer running.", daemon);
+            }
+        }
+    }
+
+    private static int countCompatibleDaemons(Iterable<DaemonInfo> daemons, ExplainingSpec<DaemonContext> constraint) {
+        int count = 0;
+        for (DaemonInfo daemon : daemons) {
+            if (constraint.isSatisfiedBy(daemon.getContext())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     private Pair<Collection<DaemonInfo>, Collection<DaemonInfo>> partitionByState(final Collection<DaemonInfo> daemons, final DaemonStateControl.State state) {
         return CollectionUtils.partition(daemons, new Spec<DaemonInfo>() {
             @Override
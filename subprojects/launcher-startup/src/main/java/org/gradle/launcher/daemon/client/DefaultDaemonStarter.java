@@ -60,12 +60,14 @@ public class DefaultDaemonStarter implements DaemonStarter {
     private final DaemonParameters daemonParameters;
     private final DaemonGreeter daemonGreeter;
     private final JvmVersionValidator versionValidator;
+    private final DaemonClassDataSharing classDataSharing;
 
-    public DefaultDaemonStarter(DaemonDir daemonDir, DaemonParameters daemonParameters, DaemonGreeter daemonGreeter, JvmVersionValidator versionValidator) {
+    public DefaultDaemonStarter(DaemonDir daemonDir, DaemonParameters daemonParameters, DaemonGreeter daemonGreeter, JvmVersionValidator versionValidator, DaemonClassDataSharing classDataSharing) {
         this.daemonDir = daemonDir;
         this.daemonParameters = daemonParameters;
         this.daemonGreeter = daemonGreeter;
         this.versionValidator = versionValidator;
+        this.classDataSharing = classDataSharing;
     }
 
     @Override
@@ -97,6 +99,8 @@ public class DefaultDaemonStarter implements DaemonStarter {
 
         List<String> daemonOpts = daemonParameters.getEffectiveJvmArgs();
         daemonArgs.addAll(daemonOpts);
+        // Not part of the daemon options, as they do not affect which daemons are compatible with a build
+        daemonArgs.addAll(classDataSharing.getJvmArgs(daemonParameters.getEffectiveJvm(), classpath, new File(daemonDir.getVersionedDir(), "cds")));
         daemonArgs.add("-cp");
         daemonArgs.add(CollectionUtils.join(File.pathSeparator, classpath.getAsFiles()));
 
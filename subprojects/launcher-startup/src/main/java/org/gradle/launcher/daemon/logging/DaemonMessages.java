@@ -34,4 +34,5 @@ public abstract class DaemonMessages {
     public static final String REMOVING_DAEMON_ADDRESS_ON_FAILURE = "Removing daemon from the registry due to communication failure. Daemon information: ";
     public static final String UNABLE_TO_STOP_DAEMON = "Unable to stop one of the daemons. The daemon may have crashed.";
     public static final String WAITING_ON_CANCELED = "Waiting for daemons with canceled builds to become available";
+    public static final String WAITING_ON_BUSY = "Waiting for a busy daemon to become available, as the maximum number of compatible daemons are running";
 }
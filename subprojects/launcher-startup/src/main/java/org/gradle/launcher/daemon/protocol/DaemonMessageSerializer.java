@@ -57,6 +57,7 @@ import org.gradle.tooling.internal.provider.serialization.SerializedPayload;
 import org.gradle.tooling.internal.provider.serialization.SerializedPayloadSerializer;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -83,6 +84,7 @@ public class DaemonMessageSerializer {
 
         // Build events
         registry.register(BuildEvent.class, new BuildEventSerializer());
+        registry.register(BuildEvents.class, new BuildEventsSerializer());
 
         // Input events
         registry.register(ForwardInput.class, new ForwardInputSerializer());
@@ -203,6 +205,21 @@ public class DaemonMessageSerializer {
         }
     }
 
+    private static class BuildEventsSerializer implements Serializer<BuildEvents> {
+        private final Serializer<Object> payloadSerializer = new DefaultSerializer<Object>();
+
+        @Override
+        public void write(Encoder encoder, BuildEvents buildEvents) throws Exception {
+            // Write the events using a single object stream, so that class descriptors and shared objects are written once per batch
+            payloadSerializer.write(encoder, new ArrayList<Object>(buildEvents.getPayloads()));
+        }
+
+        @Override
+        public BuildEvents read(Decoder decoder) throws Exception {
+            return new BuildEvents((List<?>) payloadSerializer.read(decoder));
+        }
+    }
+
     private static class ForwardInputSerializer implements Serializer<ForwardInput> {
         @Override
         public void write(Encoder encoder, ForwardInput message) throws Exception {
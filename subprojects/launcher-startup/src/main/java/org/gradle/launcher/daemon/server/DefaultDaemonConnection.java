@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -140,6 +141,12 @@ public class DefaultDaemonConnection implements DaemonConnection {
         connection.flush();
     }
 
+    @Override
+    public void events(List<?> events) {
+        connection.dispatch(new BuildEvents(events));
+        connection.flush();
+    }
+
     @Override
     public void completed(Result result) {
         connection.dispatch(result);
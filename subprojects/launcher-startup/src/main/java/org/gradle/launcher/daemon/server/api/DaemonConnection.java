@@ -23,6 +23,7 @@ import org.gradle.launcher.daemon.protocol.DaemonUnavailable;
 import org.gradle.launcher.daemon.protocol.Result;
 
 import javax.annotation.Nullable;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public interface DaemonConnection extends Stoppable {
@@ -90,6 +91,11 @@ public interface DaemonConnection extends Stoppable {
      */
     void event(Object event);
 
+    /**
+     * Dispatches the given build events to the client, as a single message.
+     */
+    void events(List<?> events);
+
     /**
      * Dispatches the given result to the client.
      */
@@ -19,14 +19,19 @@ package org.gradle.launcher.daemon.server.exec;
 import org.gradle.initialization.BuildEventConsumer;
 import org.gradle.launcher.daemon.server.api.DaemonCommandExecution;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 /**
  * An event consumer that asynchronously dispatches events to the client.
+ *
+ * Events that are queued while the previous events are sent are dispatched together, as a single message.
  */
 class DaemonConnectionBackedEventConsumer implements BuildEventConsumer {
+    private static final int MAX_EVENTS_PER_MESSAGE = 1000;
     private final DaemonCommandExecution execution;
     private final BlockingQueue<Object> queue = new LinkedBlockingQueue<Object>();
     private final ForwardEvents forwarder = new ForwardEvents();
@@ -51,10 +56,14 @@ class DaemonConnectionBackedEventConsumer implements BuildEventConsumer {
 
         @Override
         public void run() {
+            List<Object> events = new ArrayList<Object>();
             while (moreMessagesToSend()) {
                 Object event = getNextEvent();
                 if (event != null) {
-                    dispatchEvent(event);
+                    events.add(event);
+                    queue.drainTo(events, MAX_EVENTS_PER_MESSAGE - 1);
+                    dispatchEvents(events);
+                    events.clear();
                 }
             }
         }
@@ -72,9 +81,13 @@ class DaemonConnectionBackedEventConsumer implements BuildEventConsumer {
             }
         }
 
-        private void dispatchEvent(Object event) {
+        private void dispatchEvents(List<Object> events) {
             try {
-                execution.getConnection().event(event);
+                if (events.size() == 1) {
+                    execution.getConnection().event(events.get(0));
+                } else {
+                    execution.getConnection().events(new ArrayList<Object>(events));
+                }
             } catch (RuntimeException e) {
                 ableToSend = false;
             }
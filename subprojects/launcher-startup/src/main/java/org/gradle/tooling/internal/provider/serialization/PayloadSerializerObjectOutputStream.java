@@ -22,10 +22,15 @@ import org.gradle.internal.serialize.TopLevelExceptionPlaceholder;
 import java.io.IOException;
 import java.io.ObjectStreamClass;
 import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
 
 class PayloadSerializerObjectOutputStream extends ExceptionReplacingObjectOutputStream {
     static final int SAME_CLASSLOADER_TOKEN = 0;
     private final SerializeMap map;
+    // Models contain many equal strings, such as paths and names, held by distinct instances. Writing a single instance
+    // for each value lets the stream encode repeated values as back-references and the receiver share them.
+    private final Map<String, String> strings = new HashMap<String, String>();
 
     public PayloadSerializerObjectOutputStream(OutputStream outputStream, SerializeMap map) throws IOException {
         super(outputStream);
@@ -37,6 +42,20 @@ class PayloadSerializerObjectOutputStream extends ExceptionReplacingObjectOutput
         return new PayloadSerializerObjectOutputStream(outputStream, map);
     }
 
+    @Override
+    protected Object doReplaceObject(Object obj) throws IOException {
+        if (obj instanceof String) {
+            String string = (String) obj;
+            String existing = strings.get(string);
+            if (existing != null) {
+                return existing;
+            }
+            strings.put(string, string);
+            return string;
+        }
+        return super.doReplaceObject(obj);
+    }
+
     @Override
     protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException {
         Class<?> targetClass = desc.forClass();
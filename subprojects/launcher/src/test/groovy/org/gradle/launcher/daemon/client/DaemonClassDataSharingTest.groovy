@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.launcher.daemon.client
+
+import org.gradle.api.JavaVersion
+import org.gradle.internal.classpath.DefaultClassPath
+import org.gradle.internal.jvm.JavaInfo
+import org.gradle.internal.jvm.inspection.JvmVersionDetector
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class DaemonClassDataSharingTest extends Specification {
+    @Rule
+    final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    @Rule
+    final SetSystemProperties systemProperties = new SetSystemProperties()
+
+    def versionDetector = Stub(JvmVersionDetector)
+    def jvm = Stub(JavaInfo) {
+        getJavaExecutable() >> tmpDir.file("jdk/bin/java").createFile()
+    }
+    def classpath = DefaultClassPath.of(tmpDir.file("lib/gradle-launcher.jar").createFile())
+    def archiveDir = tmpDir.file("cds")
+    def classDataSharing = new DaemonClassDataSharing(versionDetector)
+
+    def "uses no archive when not enabled"() {
+        versionDetector.getJavaVersion(jvm) >> JavaVersion.VERSION_HIGHER
+
+        expect:
+        classDataSharing.getJvmArgs(jvm, classpath, archiveDir).empty
+    }
+
+    @Unroll
+    def "uses no archive when daemon JVM does not support dynamic archives (#version)"() {
+        System.setProperty(DaemonClassDataSharing.CLASS_DATA_SHARING_PROPERTY, "true")
+        versionDetector.getJavaVersion(jvm) >> version
+
+        expect:
+        classDataSharing.getJvmArgs(jvm, classpath, archiveDir).empty
+
+        where:
+        version << [JavaVersion.VERSION_11, JavaVersion.VERSION_12]
+    }
+
+    def "each daemon writes the archive to its own file until one of these is complete"() {
+        System.setProperty(DaemonClassDataSharing.CLASS_DATA_SHARING_PROPERTY, "true")
+        versionDetector.getJavaVersion(jvm) >> JavaVersion.VERSION_HIGHER
+
+        when:
+        def args = classDataSharing.getJvmArgs(jvm, classpath, archiveDir)
+        def otherArgs = classDataSharing.getJvmArgs(jvm, classpath, archiveDir)
+
+        then:
+        args.size() == 1
+        args[0].startsWith("-XX:ArchiveClassesAtExit=")
+        args[0].endsWith(".jsa.tmp")
+        otherArgs.size() == 1
+        otherArgs[0].startsWith("-XX:ArchiveClassesAtExit=")
+        otherArgs != args
+        archiveDir.directory
+
+        when:
+        def dump = dumpFile(args)
+        def otherDump = dumpFile(otherArgs)
+        dump.text = "archive"
+        otherDump.text = "other archive"
+        args = classDataSharing.getJvmArgs(jvm, classpath, archiveDir)
+
+        then:
+        args[0].startsWith("-XX:ArchiveClassesAtExit=")
+        dump.file
+        otherDump.file
+
+        when:
+        dump.lastModified = System.currentTimeMillis() - 120000
+        otherDump.lastModified = System.currentTimeMillis() - 120000
+        args = classDataSharing.getJvmArgs(jvm, classpath, archiveDir)
+
+        then:
+        args.size() == 1
+        args[0].startsWith("-XX:SharedArchiveFile=")
+        args[0].endsWith(".jsa")
+        new File(args[0].substring("-XX:SharedArchiveFile=".length())).text in ["archive", "other archive"]
+        !dump.exists()
+        !otherDump.exists()
+
+        when:
+        def archiveArgs = args
+        args = classDataSharing.getJvmArgs(jvm, classpath, archiveDir)
+
+        then:
+        args == archiveArgs
+    }
+
+    def "uses archive on Java 13"() {
+        System.setProperty(DaemonClassDataSharing.CLASS_DATA_SHARING_PROPERTY, "true")
+        versionDetector.getJavaVersion(jvm) >> JavaVersion.toVersion(13)
+
+        expect:
+        classDataSharing.getJvmArgs(jvm, classpath, archiveDir)[0].startsWith("-XX:ArchiveClassesAtExit=")
+    }
+
+    private static File dumpFile(List<String> args) {
+        new File(args[0].substring("-XX:ArchiveClassesAtExit=".length()))
+    }
+}
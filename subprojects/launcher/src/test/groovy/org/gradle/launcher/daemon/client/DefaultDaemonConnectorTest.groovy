@@ -30,12 +30,16 @@ import org.gradle.launcher.daemon.context.DefaultDaemonContext
 import org.gradle.launcher.daemon.diagnostics.DaemonStartupInfo
 import org.gradle.launcher.daemon.registry.DaemonInfo
 import org.gradle.launcher.daemon.registry.EmbeddedDaemonRegistry
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
 import spock.lang.Specification
 
 import static org.gradle.launcher.daemon.server.api.DaemonStateControl.State.Busy
 import static org.gradle.launcher.daemon.server.api.DaemonStateControl.State.Idle
 
 class DefaultDaemonConnectorTest extends Specification {
+    @Rule
+    final SetSystemProperties systemProperties = new SetSystemProperties()
 
     def javaHome = new File("tmp")
     def connectTimeoutSecs = 1
@@ -183,6 +187,72 @@ class DefaultDaemonConnectorTest extends Specification {
         thrown(DaemonConnectionException)
     }
 
+    def "connect() waits for a busy daemon to become idle when the maximum number of compatible daemons are running"() {
+        given:
+        System.setProperty(DefaultDaemonConnector.MAX_COMPATIBLE_DAEMONS_PROPERTY, "1")
+        startBusyDaemon()
+        def busyDaemon = registry.all[0]
+        def release = new Thread({
+            sleep(500)
+            registry.markState(busyDaemon.address, Idle)
+        })
+
+        when:
+        release.start()
+        def connection = connector.connect(ExplainingSpecs.satisfyAll())
+        release.join()
+
+        then:
+        connection && connection.connection.num == 0
+        numAllDaemons == 1
+    }
+
+    def "connect() starts a new daemon when a busy daemon does not become idle in time"() {
+        given:
+        System.setProperty(DefaultDaemonConnector.MAX_COMPATIBLE_DAEMONS_PROPERTY, "1")
+        connector.busyWaitTimeout = 500
+        startBusyDaemon()
+
+        expect:
+        def connection = connector.connect(ExplainingSpecs.satisfyAll())
+        connection && connection.connection.num == 1
+        numAllDaemons == 2
+    }
+
+    def "connect() stops waiting for a busy daemon that is no longer running"() {
+        given:
+        System.setProperty(DefaultDaemonConnector.MAX_COMPATIBLE_DAEMONS_PROPERTY, "1")
+        // a busy entry left behind by a daemon that was killed
+        startBusyDaemon()
+        connector.connector.connect({ it.num == 0 }) >> { throw new ConnectException("Problem!", new RuntimeException("foo")) }
+
+        when:
+        def connection = connector.connect(ExplainingSpecs.satisfyAll())
+
+        then:
+        connection && connection.connection.num == 1
+        registry.all*.address*.num == [1]
+    }
+
+    def "reads the busy wait timeout from a system property"() {
+        given:
+        System.setProperty(DefaultDaemonConnector.BUSY_WAIT_TIMEOUT_PROPERTY, "1234")
+
+        expect:
+        connector.busyWaitTimeout == 1234
+    }
+
+    def "connect() starts a new daemon when busy daemons are below the maximum number of compatible daemons"() {
+        given:
+        System.setProperty(DefaultDaemonConnector.MAX_COMPATIBLE_DAEMONS_PROPERTY, "2")
+        startBusyDaemon()
+
+        expect:
+        def connection = connector.connect(ExplainingSpecs.satisfyAll())
+        connection && connection.connection.num == 1
+        numAllDaemons == 2
+    }
+
     def "suspect address is removed from the registry on connect failure"() {
         given:
         startIdleDaemon()
@@ -46,6 +46,14 @@ class DaemonMessageSerializerTest extends SerializerSpec {
         result.payload == ["a", "b", "c"]
     }
 
+    def "can serialize BuildEvents messages"() {
+        expect:
+        def events = new BuildEvents([["a", "b"], "c", 12])
+        def result = serialize(events, serializer)
+        result instanceof BuildEvents
+        result.payloads == [["a", "b"], "c", 12]
+    }
+
     def "can serialize LogLevelChangeEvent messages"() {
         expect:
         def event = new LogLevelChangeEvent(LogLevel.LIFECYCLE)
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.launcher.daemon.server.exec
+
+import org.gradle.launcher.daemon.server.api.DaemonCommandExecution
+import org.gradle.launcher.daemon.server.api.DaemonConnection
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+
+class DaemonConnectionBackedEventConsumerTest extends Specification {
+    def connection = Mock(DaemonConnection)
+    def execution = Stub(DaemonCommandExecution) {
+        getConnection() >> connection
+    }
+
+    def "sends events that are queued while sending in order, in batches"() {
+        def firstEventSending = new CountDownLatch(1)
+        def allEventsQueued = new CountDownLatch(1)
+        def received = []
+        def batchSizes = []
+        connection.event(_) >> { Object event ->
+            firstEventSending.countDown()
+            allEventsQueued.await()
+            received << event
+        }
+        connection.events(_) >> { List<?> events ->
+            batchSizes << events.size()
+            received.addAll(events)
+        }
+
+        when:
+        def consumer = new DaemonConnectionBackedEventConsumer(execution)
+        consumer.dispatch(0)
+        firstEventSending.await()
+        (1..<2500).each { consumer.dispatch(it) }
+        allEventsQueued.countDown()
+        consumer.waitForFinish()
+
+        then:
+        received == (0..<2500).toList()
+        batchSizes == [1000, 1000, 499]
+    }
+}
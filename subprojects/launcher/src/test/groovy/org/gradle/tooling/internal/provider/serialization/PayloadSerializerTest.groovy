@@ -176,6 +176,24 @@ class PayloadSerializerTest extends AbstractClassGraphSpec {
         reply2.payload.class == payloadClass
     }
 
+    def "writes equal strings once"() {
+        def values = (1..100).collect { new String("some/long/path/to/a/file") }
+        def distinct = (1..100).collect { "some/long/path/to/file/$it".toString() }
+
+        when:
+        def serialized = originator.serialize(values)
+        def received = receiver.deserialize(serialized)
+
+        then:
+        received == values
+        received.every { it.is(received[0]) }
+        size(serialized) < size(originator.serialize(distinct))
+    }
+
+    private static int size(SerializedPayload payload) {
+        payload.serializedModel.sum { it.length } as int
+    }
+
     void assertNotVisible(Class<?> from, Class<?> to) {
         try {
             from.classLoader.loadClass(to.name)
@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.plugins;
 
+import org.gradle.api.plugins.ExtraPropertiesExtension;
 import org.gradle.internal.reflect.Instantiator;
 
 /**
@@ -27,4 +28,8 @@ public class DefaultConvention extends org.gradle.internal.extensibility.Default
     public DefaultConvention(Instantiator instantiator) {
         super(instantiator);
     }
+
+    public DefaultConvention(Instantiator instantiator, ExtraPropertiesExtension extraProperties) {
+        super(instantiator, extraProperties);
+    }
 }
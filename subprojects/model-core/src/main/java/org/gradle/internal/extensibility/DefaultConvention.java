@@ -45,14 +45,19 @@ public class DefaultConvention implements Convention, ExtensionContainerInternal
     private static final TypeOf<ExtraPropertiesExtension> EXTRA_PROPERTIES_EXTENSION_TYPE = typeOf(ExtraPropertiesExtension.class);
     private final DefaultConvention.ExtensionsDynamicObject extensionsDynamicObject = new ExtensionsDynamicObject();
     private final ExtensionsStorage extensionsStorage = new ExtensionsStorage();
-    private final ExtraPropertiesExtension extraProperties = new DefaultExtraPropertiesExtension();
+    private final ExtraPropertiesExtension extraProperties;
     private final Instantiator instantiator;
 
     private Map<String, Object> plugins;
     private Map<Object, BeanDynamicObject> dynamicObjects;
 
     public DefaultConvention(Instantiator instantiator) {
+        this(instantiator, new DefaultExtraPropertiesExtension());
+    }
+
+    public DefaultConvention(Instantiator instantiator, ExtraPropertiesExtension extraProperties) {
         this.instantiator = instantiator;
+        this.extraProperties = extraProperties;
         add(EXTRA_PROPERTIES_EXTENSION_TYPE, ExtraPropertiesExtension.EXTENSION_NAME, extraProperties);
     }
 
@@ -56,6 +56,10 @@ public class ExtensibleDynamicObject extends MixInClosurePropertiesAsMethodsDyna
         this(delegate, createDynamicObject(delegate, publicType), new org.gradle.api.internal.plugins.DefaultConvention(instantiator));
     }
 
+    public ExtensibleDynamicObject(Object delegate, Class<?> publicType, Instantiator instantiator, ExtraPropertiesExtension extraProperties) {
+        this(delegate, createDynamicObject(delegate, publicType), new org.gradle.api.internal.plugins.DefaultConvention(instantiator, extraProperties));
+    }
+
     public ExtensibleDynamicObject(Object delegate, AbstractDynamicObject dynamicDelegate, Instantiator instantiator) {
         this(delegate, dynamicDelegate, new org.gradle.api.internal.plugins.DefaultConvention(instantiator));
     }
@@ -80,7 +80,8 @@ import java.util.Collections;
 
 public class HttpClientConfigurer {
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientConfigurer.class);
-    private static final int MAX_HTTP_CONNECTIONS = 20;
+    private static final String MAX_HTTP_CONNECTIONS_PROPERTY = "org.gradle.internal.http.maxConnections";
+    private static final int DEFAULT_MAX_HTTP_CONNECTIONS = 20;
     private static final String[] SSL_PROTOCOLS;
 
     private static final String HTTPS_PROTOCOLS = "https.protocols";
@@ -114,8 +115,18 @@ public class HttpClientConfigurer {
         configureSocketConfig(builder);
         configureRedirectStrategy(builder);
         builder.setDefaultCredentialsProvider(credentialsProvider);
-        builder.setMaxConnTotal(MAX_HTTP_CONNECTIONS);
-        builder.setMaxConnPerRoute(MAX_HTTP_CONNECTIONS);
+        configureConnectionPool(builder);
+    }
+
+    private void configureConnectionPool(HttpClientBuilder builder) {
+        // A client is created per repository, so this bounds the number of concurrent requests made to each repository
+        int maxConnections = Integer.getInteger(MAX_HTTP_CONNECTIONS_PROPERTY, DEFAULT_MAX_HTTP_CONNECTIONS);
+        if (maxConnections < 1) {
+            LOGGER.warn("Invalid value for java system property '{}': {}. Default of {} connections will be used.", MAX_HTTP_CONNECTIONS_PROPERTY, maxConnections, DEFAULT_MAX_HTTP_CONNECTIONS);
+            maxConnections = DEFAULT_MAX_HTTP_CONNECTIONS;
+        }
+        builder.setMaxConnTotal(maxConnections);
+        builder.setMaxConnPerRoute(maxConnections);
     }
 
     private void configureSslSocketConnectionFactory(HttpClientBuilder builder, SslContextFactory sslContextFactory, HostnameVerifier hostnameVerifier) {